@@ -0,0 +1,95 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.Arrays;
+
+/**
+ * CloudletCompletionTimes collects the completion times of the cloudlets of a broker, from their
+ * arrival at the broker to their return, and reports their percentiles, e.g. the median and the
+ * 99th percentile that tell how an aging factor of the {@link CloudletDispatchQueue} trades the
+ * typical cloudlet against the long ones.
+ */
+public class CloudletCompletionTimes {
+
+	/** The completion times, in arrival order of the returns. */
+	private double[] times;
+
+	/** The number of completion times. */
+	private int size;
+
+	/** The completion times in increasing order, or null if a time was added since. */
+	private double[] sorted;
+
+	/**
+	 * Creates an empty collection.
+	 *
+	 * @pre $none
+	 * @post size() == 0
+	 */
+	public CloudletCompletionTimes() {
+		times = new double[16];
+	}
+
+	/**
+	 * Adds the completion time of a cloudlet.
+	 *
+	 * @param time the time from the arrival of the cloudlet to its return, in seconds
+	 * @pre time >= 0
+	 * @post size() == $old(size()) + 1
+	 */
+	public void add(double time) {
+		if (size == times.length) {
+			times = Arrays.copyOf(times, 2 * size);
+		}
+		times[size++] = time;
+		sorted = null;
+	}
+
+	/**
+	 * Gets the number of completion times.
+	 *
+	 * @return the size
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets a percentile of the completion times, by nearest rank: the smallest time that at least
+	 * that percentage of the times do not exceed.
+	 *
+	 * @param percent the percentile, between 0 and 100
+	 * @return the completion time, or NaN if there is none
+	 * @pre percent >= 0 && percent <= 100
+	 */
+	public double percentile(double percent) {
+		if (percent < 0 || percent > 100) {
+			throw new IllegalArgumentException("CloudletCompletionTimes: invalid percentile " + percent);
+		}
+		if (size == 0) {
+			return Double.NaN;
+		}
+		if (sorted == null) {
+			sorted = Arrays.copyOf(times, size);
+			Arrays.sort(sorted);
+		}
+		int rank = (int) Math.ceil(percent / 100 * size);
+		return sorted[Math.max(0, rank - 1)];
+	}
+
+	/**
+	 * Removes all the completion times.
+	 */
+	public void clear() {
+		size = 0;
+		sorted = null;
+	}
+
+}
@@ -0,0 +1,245 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.Arrays;
+
+/**
+ * CloudletDispatchQueue holds the cloudlets a broker has not yet sent to one vm, shortest first.
+ * It is a binary min-heap keyed by cloudlet length, cloudlets of equal key leaving in the order
+ * they came, so a short cloudlet queued late overtakes the long ones still waiting. Adding and
+ * removing a cloudlet cost O(log n).
+ * <p>
+ * To keep a stream of short cloudlets from starving a long one, the queue can age the cloudlets:
+ * a cloudlet leaves by its length less the aging factor times the time it has waited. At any
+ * time t that priority, length - aging * (t - arrival), orders the cloudlets as the fixed key
+ * length + aging * arrival does, so the key is set once on arrival and never updated. With an
+ * aging factor of a MI per second, a cloudlet waiting d seconds goes ahead of any cloudlet
+ * arriving after it that is less than a * d MI shorter.
+ */
+public class CloudletDispatchQueue {
+
+	/** The initial capacity of the heap. */
+	private static final int INITIAL_CAPACITY = 16;
+
+	/** The cloudlets in heap order. */
+	private Cloudlet[] cloudlets;
+
+	/** The key of each cloudlet, in heap order. */
+	private double[] keys;
+
+	/** The arrival number of each cloudlet, in heap order, breaking ties first come first. */
+	private long[] arrivals;
+
+	/** The number of cloudlets queued. */
+	private int size;
+
+	/** The number of cloudlets ever queued. */
+	private long arrivalCount;
+
+	/** The sum of the lengths of the cloudlets queued. */
+	private long queuedLength;
+
+	/** The MI a cloudlet gains on the cloudlets arriving after it per second it waits. */
+	private final double agingFactor;
+
+	/**
+	 * Creates an empty queue, shortest job first without aging.
+	 *
+	 * @pre $none
+	 * @post size() == 0
+	 */
+	public CloudletDispatchQueue() {
+		this(0);
+	}
+
+	/**
+	 * Creates an empty queue.
+	 *
+	 * @param agingFactor the MI a cloudlet gains per second it waits, 0 for none
+	 * @pre agingFactor >= 0
+	 * @post size() == 0
+	 */
+	public CloudletDispatchQueue(double agingFactor) {
+		if (agingFactor < 0 || Double.isNaN(agingFactor)) {
+			throw new IllegalArgumentException("CloudletDispatchQueue: invalid aging factor " + agingFactor);
+		}
+		this.agingFactor = agingFactor;
+		cloudlets = new Cloudlet[INITIAL_CAPACITY];
+		keys = new double[INITIAL_CAPACITY];
+		arrivals = new long[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Queues a cloudlet arriving at time 0.
+	 *
+	 * @param cloudlet the cloudlet
+	 * @pre cloudlet != null
+	 * @post size() == $old(size()) + 1
+	 */
+	public void add(Cloudlet cloudlet) {
+		add(cloudlet, 0);
+	}
+
+	/**
+	 * Queues a cloudlet.
+	 *
+	 * @param cloudlet the cloudlet
+	 * @param time the simulation time it arrived at
+	 * @pre cloudlet != null
+	 * @post size() == $old(size()) + 1
+	 */
+	public void add(Cloudlet cloudlet, double time) {
+		if (size == cloudlets.length) {
+			cloudlets = Arrays.copyOf(cloudlets, 2 * size);
+			keys = Arrays.copyOf(keys, 2 * size);
+			arrivals = Arrays.copyOf(arrivals, 2 * size);
+		}
+		queuedLength += cloudlet.getCloudletLength();
+		double key = cloudlet.getCloudletLength() + agingFactor * time;
+		siftUp(size++, cloudlet, key, arrivalCount++);
+	}
+
+	/**
+	 * Gets the cloudlet of smallest key without removing it.
+	 *
+	 * @return the cloudlet, or null if the queue is empty
+	 */
+	public Cloudlet peek() {
+		return size == 0 ? null : cloudlets[0];
+	}
+
+	/**
+	 * Removes the cloudlet of smallest key, the shortest one without aging.
+	 *
+	 * @return the cloudlet, or null if the queue is empty
+	 */
+	public Cloudlet poll() {
+		if (size == 0) {
+			return null;
+		}
+		Cloudlet shortest = cloudlets[0];
+		queuedLength -= shortest.getCloudletLength();
+		size--;
+		if (size > 0) {
+			siftDown(0, cloudlets[size], keys[size], arrivals[size]);
+		}
+		cloudlets[size] = null;
+		return shortest;
+	}
+
+	/**
+	 * Gets the number of cloudlets queued.
+	 *
+	 * @return the size
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the aging factor.
+	 *
+	 * @return the MI a cloudlet gains per second it waits
+	 */
+	public double getAgingFactor() {
+		return agingFactor;
+	}
+
+	/**
+	 * Checks whether no cloudlet is queued.
+	 *
+	 * @return true if the queue is empty
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Gets the sum of the lengths of the cloudlets queued, the work waiting for the vm.
+	 *
+	 * @return the queued length, in MI
+	 */
+	public long getQueuedLength() {
+		return queuedLength;
+	}
+
+	/**
+	 * Checks whether an entry leaves before another one.
+	 *
+	 * @param key the key of the first entry
+	 * @param arrival the arrival number of the first entry
+	 * @param i the position of the second entry
+	 * @return true if the first entry leaves first
+	 */
+	private boolean before(double key, long arrival, int i) {
+		return key < keys[i] || (key == keys[i] && arrival < arrivals[i]);
+	}
+
+	/**
+	 * Moves an entry up from a position to its place.
+	 *
+	 * @param i the free position to start from
+	 * @param cloudlet the cloudlet
+	 * @param key its key
+	 * @param arrival its arrival number
+	 */
+	private void siftUp(int i, Cloudlet cloudlet, double key, long arrival) {
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (!before(key, arrival, parent)) {
+				break;
+			}
+			place(i, cloudlets[parent], keys[parent], arrivals[parent]);
+			i = parent;
+		}
+		place(i, cloudlet, key, arrival);
+	}
+
+	/**
+	 * Moves an entry down from a position to its place.
+	 *
+	 * @param i the free position to start from
+	 * @param cloudlet the cloudlet
+	 * @param key its key
+	 * @param arrival its arrival number
+	 */
+	private void siftDown(int i, Cloudlet cloudlet, double key, long arrival) {
+		while (true) {
+			int child = 2 * i + 1;
+			if (child >= size) {
+				break;
+			}
+			if (child + 1 < size && before(keys[child + 1], arrivals[child + 1], child)) {
+				child++;
+			}
+			if (before(key, arrival, child)) {
+				break;
+			}
+			place(i, cloudlets[child], keys[child], arrivals[child]);
+			i = child;
+		}
+		place(i, cloudlet, key, arrival);
+	}
+
+	/**
+	 * Puts an entry at a position of the heap.
+	 *
+	 * @param i the position
+	 * @param cloudlet the cloudlet
+	 * @param key its key
+	 * @param arrival its arrival number
+	 */
+	private void place(int i, Cloudlet cloudlet, double key, long arrival) {
+		cloudlets[i] = cloudlet;
+		keys[i] = key;
+		arrivals[i] = arrival;
+	}
+
+}
@@ -10,10 +10,11 @@ package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.SplittableRandom;
 import java.lang.Math;
 
 import org.cloudbus.cloudsim.core.CloudSim;
@@ -73,6 +74,60 @@ public class DatacenterBroker extends SimEntity {
 	/** The datacenter characteristics list. */
 	protected Map<Integer, DatacenterCharacteristics> datacenterCharacteristicsList;
 
+	/** Whether the GA evaluates its population on the ForkJoin common pool. */
+	protected boolean parallelEvaluation;
+
+	/** The number of GA islands; a single population is evolved when it is 1. */
+	protected int islandCount;
+
+	/** The number of generations between two migrations of the GA islands. */
+	protected int migrationInterval;
+
+	/** Whether the GA islands run in separate local processes instead of threads. */
+	protected boolean distributedIslands;
+
+	/** Whether the GA population is kept off the heap. */
+	protected boolean offHeapPopulation;
+
+	/** Whether the GA population packs its genes in as few bits as the vm count needs. */
+	protected boolean packedPopulation;
+
+	/** The parameters of the GA. */
+	protected GaConfig gaConfig;
+
+	/** Whether the GA trades the makespan against the monetary cost instead of minimizing it. */
+	protected boolean multiObjective;
+
+	/** The policy picking the allocation to dispatch from the Pareto front. */
+	protected int paretoPolicy;
+
+	/** The cost budget of the allocation picked from the Pareto front, 0 for none. */
+	protected double costBudget;
+
+	/** The best allocations of past batches the GA warm starts from, or null for none. */
+	protected GaSolutionCache solutionCache;
+
+	/** The trace of the GA. */
+	protected GaTrace gaTrace;
+
+	/** Whether the cloudlets are sent to each vm as its pes free up instead of all at once. */
+	protected boolean onlineDispatch;
+
+	/** The cloudlets waiting to be sent to each vm, by vm id, in online dispatch mode. */
+	protected Map<Integer, CloudletDispatchQueue> dispatchQueues;
+
+	/** The number of pes of each vm not running a cloudlet, by vm id, in online dispatch mode. */
+	protected Map<Integer, Integer> freePes;
+
+	/** The MI a queued cloudlet gains per second it waits, in online dispatch mode. */
+	protected double agingFactor;
+
+	/** The time each cloudlet not yet returned arrived at the broker, by cloudlet id. */
+	protected Map<Integer, Double> arrivalTimes;
+
+	/** The completion times of the cloudlets returned. */
+	protected CloudletCompletionTimes completionTimes;
+
 	/**
 	 * Created a new DatacenterBroker object.
 	 * 
@@ -100,6 +155,16 @@ public class DatacenterBroker extends SimEntity {
 		setDatacenterRequestedIdsList(new ArrayList<Integer>());
 		setVmsToDatacentersMap(new HashMap<Integer, Integer>());
 		setDatacenterCharacteristicsList(new HashMap<Integer, DatacenterCharacteristics>());
+		setDispatchQueues(new HashMap<Integer, CloudletDispatchQueue>());
+		setFreePes(new HashMap<Integer, Integer>());
+		setArrivalTimes(new HashMap<Integer, Double>());
+		setCompletionTimes(new CloudletCompletionTimes());
+
+		setIslandCount(1);
+		setMigrationInterval(5);
+		setGaConfig(GaConfig.DEFAULT);
+		setParetoPolicy(GaParetoFront.KNEE);
+		setGaTrace(GaTrace.DISABLED);
 	}
 
 	/**
@@ -276,8 +341,24 @@ public class DatacenterBroker extends SimEntity {
 		//Log.printLine(CloudSim.clock() + ": " + getName() + ": Cloudlet " + cloudlet.getCloudletId()
 		//		+ " received");
 		cloudletsSubmitted--;
+		Double arrival = getArrivalTimes().remove(cloudlet.getCloudletId());
+		if (arrival != null) {
+			getCompletionTimes().add(CloudSim.clock() - arrival);
+		}
+		if (isOnlineDispatch()) {
+			// the pes of the cloudlet are free again, for the next shortest one of its vm
+			Vm vm = VmList.getById(getVmsCreatedList(), cloudlet.getVmId());
+			if (vm != null) {
+				getFreePes().put(vm.getId(), getFreePes().get(vm.getId()) + cloudlet.getNumberOfPes());
+				dispatchCloudlets(vm);
+			}
+		}
 		if (getCloudletList().size() == 0 && cloudletsSubmitted == 0) { // all cloudlets executed
 			//p//Log.printLine(CloudSim.clock() + ": " + getName() + ": All Cloudlets executed. Finishing...");
+			if (getCompletionTimes().size() > 0) {
+				Log.printLine(CloudSim.clock() + ": " + getName() + ": Completion time p50 "
+						+ getCompletionTimes().percentile(50) + ", p99 " + getCompletionTimes().percentile(99));
+			}
 			clearDatacenters();
 			finishExecution();
 		} else { // some cloudlets haven't finished yet
@@ -305,6 +386,17 @@ public class DatacenterBroker extends SimEntity {
 			return;
 		}
 
+		// a cloudlet arriving while the simulation runs
+		if (isOnlineDispatch() && ev.getTag() == CloudSimTags.CLOUDLET_SUBMIT && ev.getData() instanceof Cloudlet) {
+			queueCloudlet((Cloudlet) ev.getData());
+			return;
+		}
+		if (ev.getTag() == CloudSimTags.CLOUDLET_SUBMIT && ev.getData() instanceof Cloudlet) {
+			Log.printLine(CloudSim.clock() + ": " + getName() + ": Dropping cloudlet "
+					+ ((Cloudlet) ev.getData()).getCloudletId() + ", submitted while online dispatch is off");
+			return;
+		}
+
 		//p//Log.printLine(getName() + ".processOtherEvent(): "
 			//p//	+ "Error - event unknown by this DatacenterBroker.");
 	}
@@ -354,35 +446,35 @@ public class DatacenterBroker extends SimEntity {
 	 * @post $none
 	 */
 	protected void submitCloudlets() {
+		//anytime mode: the GA hands over its best allocation when the time limit is up
+		GaDeadline deadline = GaDeadline.after(getGaConfig().getTimeLimit());
+		//every random stream of the GA is split from one seed, logged so the run can be replayed
+		long seed = getGaConfig().getSeed() != 0 ? getGaConfig().getSeed() : new SplittableRandom().nextLong();
+		SplittableRandom random = new SplittableRandom(seed);
+		GaTrace trace = getGaTrace();
+		if(trace.isEnabled(GaTrace.SUMMARY))
+			trace.log("GA seed : "+seed);
 		int vmIndex = 0;
-		int[][] b = new int[100][100];
-		int[][] final_matrix = new int[100][100];
-		double final_makespans2[] = new double[50];
-		int needed_index = 0;
-		double current_min_makespan,min_one=9999.99;
-		double min_makespan=9999.99;
-		double makespans2[] = new double[50];
+		//the population is sized from the cloudlets and the vms actually present
+		int cloudletCount = getCloudletList().size();
+		int vmCount = getVmsCreatedList().size();
 		
 
 		
 		//INITIAL POPULATION
-		//first 18 chromosomes are made as random
-		Random rand = new Random();
-        int[][] a = new int[50][50];
-        int cno=20;
-        for(int m=0;m<(cno-2);m++)
-		{
-			for(int n=0;n<getCloudletList().size();n++)
-			{
-				a[m][n]=rand.nextInt(getVmsCreatedList().size());
-			}
-		}
+		//all but the last five chromosomes are made as random by the GA
+		//the last five are the round robin, longest to fastest, Min-Min, Max-Min
+		//and Sufferage seeds; LPT on these uniform vms is the Max-Min seed
+		int[] roundRobin = new int[cloudletCount];
+		int[] longestToFastest = new int[cloudletCount];
 
-		//the 19th chromosome
+		//the round robin chromosome
        //Log.printLine("FCFS\ncloudlet id -  - vm id");
+		int gene = -1;
 		for (Cloudlet cloudlet : getCloudletList())
 		{
 			Vm vm;
+			gene++;
 			// if user didn't bind this cloudlet and it has not been executed yet
 			if (cloudlet.getVmId() == -1) 
 			{
@@ -401,497 +493,185 @@ public class DatacenterBroker extends SimEntity {
 			//Log.printLine("     "+cloudlet.getCloudletId() +"	    - -  "+vm.getId());
 			cloudlet.setVmId(vm.getId());
 			//fcfs is added as the 21st chromosome
-			a[cno-2][cloudlet.getCloudletId()]=vm.getId();
-			cloudletsSubmitted++;
-			vmIndex = (vmIndex + 1) % getVmsCreatedList().size();
-			getCloudletSubmittedList().add(cloudlet);
+			roundRobin[gene] = getVmsCreatedList().indexOf(vm);
+			vmIndex = (vmIndex + 1) % vmCount;
 		}
         
       /*  for(int i=0;i<getCloudletList().size();i++)
         {
-        	a[cno-2][i]=(i+1)%getVmsCreatedList().size();
+        	roundRobin[i] = (i+1)%vmCount;
         }*/
 	
 		
 		//array = vmid and vmmips
-		double vmmips[]=new double[50];
+		double vmmips[]=new double[vmCount];
 		int vmmipsc=0;
-		System.out.println("VMID  MIPS");
+		//the per vm and per cloudlet tables only go to a detailed trace
+		boolean detail = trace.isEnabled(GaTrace.DETAIL);
+		if(detail)
+			trace.log("VMID  MIPS");
 		for(Vm mipsvm : getVmsCreatedList())
 		{
 			vmmips[vmmipsc]=mipsvm.getMips();
-			System.out.println(vmmipsc+"    "+vmmips[vmmipsc]);vmmipsc++;	
-			
+			if(detail)
+				trace.log(vmmipsc+"    "+vmmips[vmmipsc]);
+			vmmipsc++;
 		}
 		
 		//array = cloudletid and cloudlength
-		double cllen[]=new double[50];int cllenc=0;
-		System.out.println("cloudletID  length");
-		for(Cloudlet lengthcl : getCloudletSubmittedList())
+		double cllen[]=new double[cloudletCount];int cllenc=0;
+		if(detail)
+			trace.log("cloudletID  length");
+		for(Cloudlet lengthcl : getCloudletList())
 		{
 			cllen[cllenc]=lengthcl.getCloudletLength();
-			System.out.println(" "+cllenc+"	    "+cllen[cllenc]);cllenc++;	
-			
+			if(detail)
+				trace.log(" "+cllenc+"	    "+cllen[cllenc]);
+			cllenc++;
 		}
 		
-		//vms are sorted based on mips value
-		//sort_list = list which is sorted based on mips
-		//temp_list = vm list
+		//vms are sorted based on mips value, fastest first
 		//longest task - fastest processor//LPFP
-		List<Vm> sortList=new ArrayList<Vm>(); 
-		ArrayList<Vm> tempList=new ArrayList<Vm>(); 
-		for (Vm vm1 : getVmsCreatedList()) 
+		int sortlistofvm[]=GaSort.order(vmmips, true);
+		if(detail)
 		{
-			//adding each element of vm list to temp list
-			tempList.add(vm1);	
-		}
-		
-		int totalvms=tempList.size();
-		for(int i=0;i<totalvms;i++)
-		{
-			Vm fastestvm=tempList.get(0);
-			//assuming that the first element in temp list is fastest one
-			for(Vm checkvm:tempList)
-			{	//linear search
-				if(fastestvm.getMips()<checkvm.getMips())
-				//comparing each elementt with fastest element
-				{
-					fastestvm=checkvm;
-				}
-			}
-			sortList.add(fastestvm);//add only the fastest elt to sortlist
-			tempList.remove(fastestvm);
-		}
-			
-	
-	int count1=1;
-	int sortlistofvm[]=new int[20];
-	System.out.println("\nvm list sorted according to mips value");
-	System.out.println("vm Id    mips");
-	for(Vm printvm : sortList)
-	{
-		Log.printLine("  "+printvm.getId()+"    "+printvm.getMips());
-		sortlistofvm[count1]=printvm.getId();
-		count1++;
-	}
-	
-	
-	//based on cloud let length
-	List<Cloudlet> sortList1=new ArrayList<Cloudlet>(); //sort_list = list which is sorted based on time
-	ArrayList<Cloudlet> tempList1=new ArrayList<Cloudlet>(); //temp_list = cloud_let list
-	for (Cloudlet cloudlet1 : getCloudletList()) {
-		tempList1.add(cloudlet1);	//adding each element of cloud list to temp list
-	}
-	int totalCloudlets=tempList1.size();
-	for(int i=0;i<totalCloudlets;i++)
-	{
-		Cloudlet largestCloudlet=tempList1.get(0);
-		//assuming that the first elt in temp list is smallest one
-		for(Cloudlet checkCloudlet:tempList1)
-		{	//linear search
-			if(largestCloudlet.getCloudletLength()<checkCloudlet.getCloudletLength())
-				//comparing each elt with smallest elt
+			trace.log("vm list sorted according to mips value, vm Id    mips");
+			for(int v : sortlistofvm)
 			{
-				largestCloudlet=checkCloudlet;
+				Vm printvm=getVmsCreatedList().get(v);
+				trace.log("  "+printvm.getId()+"    "+printvm.getMips());
 			}
 		}
-		
-		sortList1.add(largestCloudlet);//add only the smallest elt to sortlist
-		tempList1.remove(largestCloudlet);
-		
-	}
-	
 	
-	int count3=1;
-	int sortlistofcl[]=new int[100];
-	int temp3[]=new int[100];
-	System.out.println("\ncl based on length");
-	System.out.println("cl Id    length");
-	for(Cloudlet printCloudlet : sortList1)
+	//based on cloud let length, longest first
+	long cllong[]=new long[cloudletCount];
+	for(int i=0;i<cloudletCount;i++)
+		cllong[i]=getCloudletList().get(i).getCloudletLength();
+	int sortlistofcl[]=GaSort.order(cllong, true);
+	if(detail)
 	{
-		Log.printLine(printCloudlet.getCloudletId()+" - "+printCloudlet.getCloudletLength());
-		sortlistofcl[count3]=printCloudlet.getCloudletId();
-		count3++;
+		trace.log("cl based on length, cl Id    length");
+		for(int c : sortlistofcl)
+		{
+			Cloudlet printCloudlet=getCloudletList().get(c);
+			trace.log(printCloudlet.getCloudletId()+" - "+printCloudlet.getCloudletLength());
+		}
 	}
 	
 	
-	//since the first element in sortlistof vm has 0
-	//i am creating a new array temp where the first element is excluded
-	for(int c=1,c2=0;c<(getVmsCreatedList().size()+1);c++)
-	{
-		temp3[c2]=sortlistofvm[c];
-		c2++;
-	}
-	//assigning the temp list to array a
-	//temp list will be last chromosome
+	//assigning the sorted vms to the seed
+	//longest cloudlet to fastest vm, will be last chromosome
 	int n1=0;
-	for(int n=1;n<getCloudletList().size();n++)
+	for(int n=0;n<cloudletCount;n++)
 	{
-		a[cno-1][sortlistofcl[n]]=temp3[n1];
+		longestToFastest[sortlistofcl[n]] = sortlistofvm[n1];
 		n1++;
-		n1=n1%getVmsCreatedList().size();
-	}
-	
-	//the array of initial population is printed
-	System.out.print("\nINITIAL POPULATION\n  ");
-	System.out.print("  ");
-	for(int n=0;n<getCloudletList().size();n++)	
-	{
-		System.out.print("    "+n);
-	}
-	System.out.println("\n");
-	for(int m=0;m<cno;m++)
-	{	System.out.print(m+" - - ");
-		for(int n=0;n<getCloudletList().size();n++)
-		{	
-			System.out.print(a[m][n]+"   ");
-		}
-		System.out.println("\n");
+		n1=n1%vmCount;
 	}
-	//initial population is done and is in a[][]
-	
-	
-	
-	
-	
-	
-	double etc[][] = new double[40][20];
-	double throughput;
 	
-	for(int i=0;i<getCloudletList().size();i++)
-	{
-		for(int j=0;j<getVmsCreatedList().size();j++)
-		{
-			etc[i][j]=cllen[i]/vmmips[j];
-		}
-	}
+	//etc = cloudlet length / vm mips, computed on the fly from the two vectors
+	GaEtc etc = GaEtc.create(cllen, vmmips);
 	
 		
 	//FITNESS FUNCTION
-	
-	int k=-1,w1=0;
-	double make[] = new double[getCloudletList().size()];
-	double makespans[] = new double[cno];
-	for(int i=0;i<cno;i++)
-	{
-		makespans[i]=0.0;
-	}
-	for(int i=0;i<getVmsCreatedList().size();i++)
-	{
-		make[i]=0.0;
-	}
-	for(int m=0;m<cno;m++)
-	{	k++;
-		for(int q=0;q<getVmsCreatedList().size();q++)
-		{	for(int n=0;n<getCloudletList().size();n++)
-			
-			{
-				if(a[m][n]==q)
-				{
-					make[w1]+=etc[n][q];
-				}
-			}w1++;
-			
-		}
-		w1=0;
-		makespans[k]=find_max(make);
-	}
-	
-	System.out.println("MAKESPANS");
-	for(int w=0;w<cno;w++)
-		System.out.println(" "+w+ "  "+makespans[w]);
-	
-	
-	for(int w=0;w<cno;w++)
-	{
-		makespans2[w]=makespans[w];
-	}
-	
-	
-		//SELECTION
-	
-	//roulette wheel as per algo selects one out of the whole!
-	double total_fitness = 0.0;
-	for(int w=0;w<cno;w++)
-		total_fitness+=makespans[w];
-	
-	System.out.println("the total fitness is "+total_fitness);
-	current_min_makespan=makespans2[0];
-	for(int w=1;w<cno;w++)
-	{
-		if(current_min_makespan>makespans2[w])
-		{
-			current_min_makespan=makespans2[w];
-			//needed_index=w;
-		}
-	}
-	throughput = getCloudletList().size()/current_min_makespan;
-	current_min_makespan+=1/throughput;
-	int count=0,count_same=0,ind=0,countm=0;
-	double[] index1 = new double[5];
-	while(!(Math.abs(min_one)==Math.abs(current_min_makespan) && count_same==3))
-	 
-		{	
-		for(int m=0;m<cno;m++)
+	//one pass over the genes of each chromosome, see GaFitness
+	GaFitness fitness = new GaFitness(etc);
+	//list scheduling seeds, see GaHeuristics; Sufferage stops recomputing at the deadline
+	int[][] heuristics = { roundRobin, longestToFastest, GaHeuristics.minMin(cllen, vmmips),
+			GaHeuristics.maxMin(cllen, vmmips), GaHeuristics.sufferage(cllen, vmmips, deadline) };
+	//warm start: the best allocations of a similar past batch come first
+	int[][] cached = getSolutionCache() != null ? getSolutionCache().get(cllen, vmmips) : new int[0][];
+	if(cached.length>0 && trace.isEnabled(GaTrace.SUMMARY))
+		trace.log("warm start from "+cached.length+" cached allocations");
+	int[][] seeds = new int[cached.length + heuristics.length][];
+	System.arraycopy(cached, 0, seeds, 0, cached.length);
+	System.arraycopy(heuristics, 0, seeds, cached.length, heuristics.length);
+	int[] best;
+	double bestMakespan;
+	int count;
+	if (isMultiObjective()) {
+		//NSGA-II over makespan and cost, then one allocation of the Pareto front is picked
+		GaNsgaEngine engine = new GaNsgaEngine(fitness, createGaCost(etc), getGaConfig(), cloudletCount, vmCount,
+				random);
+		engine.setDeadline(deadline);
+		engine.setTrace(trace);
+		engine.initialize(seeds);
+		engine.run();
+		GaParetoFront front = engine.getFront();
+		if(detail)
 		{
-			for(int n=0;n<getCloudletList().size();n++)
+			trace.log("The Pareto front is :");
+			for(int w=0;w<front.size();w++)
 			{
-				final_matrix[m][n]=b[m][n];
+				trace.log(w+"--- makespan "+front.getMakespan(w)+"  cost "+front.getCost(w));
 			}
 		}
-		for(int q=0;q<cno;q++)
-		{
-			final_makespans2[q]=makespans2[q];
-		}
-		min_makespan = total_fitness;
-		if(min_one>current_min_makespan)
-		{
-			min_one=current_min_makespan;
+		int pick = getCostBudget() > 0 ? front.pickWithinBudget(getCostBudget()) : front.pick(getParetoPolicy());
+		if(trace.isEnabled(GaTrace.SUMMARY))
+			trace.log("Picked "+pick+" of the Pareto front with cost "+front.getCost(pick));
+		best = front.getAllocation(pick);
+		bestMakespan = front.getMakespan(pick);
+		count = engine.getGenerations();
+	} else if (getIslandCount() > 1 && isDistributedIslands()) {
+		//several populations in their own processes, exchanging their best chromosomes
+		//over loopback sockets
+		GaDistributedIslands islands = new GaDistributedIslands(cllen, vmmips, getGaConfig(), getIslandCount(),
+				getMigrationInterval(), random);
+		islands.setDeadline(deadline);
+		islands.run(seeds);
+		best = islands.getBest();
+		bestMakespan = islands.getBestMakespan();
+		count = islands.getGenerations();
+	} else if (getIslandCount() > 1) {
+		//several populations on their own threads, exchanging their best chromosomes
+		GaIslands islands = new GaIslands(fitness, getGaConfig(), getIslandCount(), cloudletCount, vmCount,
+				getMigrationInterval(), random);
+		islands.setDeadline(deadline);
+		islands.setTrace(trace);
+		islands.run(seeds);
+		best = islands.getBest();
+		bestMakespan = islands.getBestMakespan();
+		count = islands.getGenerations();
+	} else {
+		int storage = GaPopulation.HEAP;
+		if (isPackedPopulation()) {
+			storage = GaPopulation.PACKED;
+		} else if (isOffHeapPopulation()) {
+			storage = GaPopulation.OFF_HEAP;
 		}
-		else if(Math.abs(min_one)==Math.abs(current_min_makespan))
-		{
-			index1[ind++]=min_one;
-			if(ind==0)
-				break;
-			if(Math.abs(index1[--ind])==Math.abs(current_min_makespan))
-			{
-				count_same=2;
-				if(ind==0)
-					break;
-				if(Math.abs(index1[--ind])==Math.abs(current_min_makespan))
-				{
-					count_same=3;
-				}
-				else
-				{
-					ind++;
-				}
-			}
-			else
-			{
-				ind++;
-			}
-		}
-		else {}
-		
-	
-	int[] select=new int[100];
-	int[] for_selection = new int[100];
-	for(int i=0;i<cno;i++)
-		for_selection[i]=i;
-	double[] sort_makespan = new double [100];
-	int temps;
-	double temps1;
-	for(int i=0;i<cno;i++)
-	{
-		for(int j=0;j<cno-i;j++)
-		{
-			if(makespans2[i]>makespans2[j])
-			{
-				temps1=makespans2[i];
-				makespans2[i]=makespans2[j];
-				makespans2[j]=temps1;
-				temps=for_selection[i];
-				for_selection[i]=for_selection[j];
-				for_selection[j]=temps;
-				
-				
-			}
+		GaEngine engine = new GaEngine(fitness, getGaConfig(), cloudletCount, vmCount, random, storage);
+		try {
+			engine.setTrace(trace, "ga");
+			engine.setDeadline(deadline);
+			engine.initialize(seeds, isParallelEvaluation());
+			engine.run();
+		} finally {
+			//the scheduling round is over, give the population storage back
+			engine.release();
 		}
+		best = engine.getBest();
+		bestMakespan = engine.getBestMakespan();
+		count = engine.getGenerations();
 	}
-	/*for(int i1=0;i1<cno;i1++)
-	{
-		double random_number = Math.random() * (total_fitness);
-		System.out.println("the random number is "+random_number);
-		double sums = 0.0;
 
-		int i;
-		for(i=0;i<cno;i++)
-		{
-			if(sums<random_number)
-			{
-				sums+=makespans2[i];
-			}
-			else 
-				break;
-		}
-		select[i1]=--i;
-		
-	//roulett ends here
-	}*/
-	Random random = new Random();
-	for(int i1=0;i1<cno;i1++)
-	{
-		int random_number = random.nextInt((cno/2)-1) ;
-		select[i1]=for_selection[random_number];
-	}
-	//for the newer populations
-	
-	
-	System.out.println("The selected chromosomes are");
-	for(int i2=0;i2<cno;i2++)
-	{
-		System.out.println("  "+select[i2]);
-	}
+	if(getSolutionCache() != null)
+		getSolutionCache().put(cllen, vmmips, best);
 
-	for(int i=0;i<cno;i++)
-	{	
-		for(int i3=0;i3<getCloudletList().size();i3++)
-		{
-			b[i][i3]=a[select[i]][i3];
-		}
-	}
-	System.out.print("\nNEXT POPULATION\n  ");
-	System.out.print("  ");
-	for(int n=0;n<getCloudletList().size();n++)	
-	{
-		System.out.print("    "+n);
-	}
-	System.out.println("\n");
-	for(int m=0;m<cno;m++)
-	{	System.out.print(m+" - - ");
-		for(int n=0;n<getCloudletList().size();n++)
-		{	
-			System.out.print(b[m][n]+"   ");
-		}
-		System.out.println("\n");
-	}
-	
-	
-	
-	
-	
-	//CROSSOVER
-	int temp1=0;
-	for(int m=0;m<cno;m=m+2)
-	{	
-		for(int n=0,o=getVmsCreatedList().size();n<getVmsCreatedList().size() && o<getCloudletList().size();n++,o++)
-		{	
-			temp1=b[m][n];
-			b[m][n]=b[m+1][o];
-			b[m+1][o]=temp1;
-		}
-		
-		
-	}
-	//POPULATION AFTER CROSSOVER
-	System.out.print("After crossover\n");
-	for(int m=0;m<cno;m++)
-	{	System.out.print(m+" - - ");
-		for(int n=0;n<getCloudletList().size();n++)
-		{	
-			System.out.print(b[m][n]+"   ");
-		}
-		System.out.println("\n");
-	}
-	
-	//To PRINT THE MAKESPAN OF POPULATION AFTER CROSSOVER
-	double[] make2 = new double [getCloudletList().size()];
-	for(int r=0;r<cno;r++)
-	{
-		makespans2[r]=0;
-	}
-	for(int r=0;r<cno;r++)
+	if(detail)
 	{
-		make2[r]=0;
-	}
-	total_fitness=0;
-	int k12=-1,w2=0;
-	
-	for(int m=0;m<cno;m++)
-	{	k12++;
-		for(int q=0;q<getVmsCreatedList().size();q++)
-		{	
-			for(int n=0;n<getCloudletList().size();n++)
-			{
-				if(b[m][n]==q)
-				{
-					make2[w2]+=etc[n][q];
-				}
-			}w2++;
-				
-		}
-		w2=0;
-		makespans2[k12]=find_max(make2);
-	}
-	System.out.println("MAKESPANS");
-	for(int w=0;w<cno;w++)
-		System.out.println(" "+w+ "  "+makespans2[w]);
-	
-	for(int w=0;w<cno;w++)
-		total_fitness+=makespans2[w];
-	current_min_makespan=makespans2[0];
-	for(int w=1;w<cno;w++)
-	{
-		if(current_min_makespan>makespans2[w])
+		trace.log("The Allocation is :");
+		for(int w=0;w<cloudletCount;w++)
 		{
-			current_min_makespan=makespans2[w];
-			throughput = getCloudletList().size()/current_min_makespan;
+			trace.log(w+"---"+best[w]);
 		}
 	}
-	current_min_makespan+=1/throughput;
-	count++;countm++;
-	
-	
-	
-	
-	if(countm>5)
-	{
-		countm=0;
-		//MUTATION
-				System.out.print("Mutation\n");
-				for(int m=0;m<cno;m++)
-				{		
-					b[m][rand.nextInt(getVmsCreatedList().size())]=rand.nextInt(getVmsCreatedList().size());
-					
-				}
-				
-			//POPULATION AFTER MUTATION
-				System.out.print("After mutation\n");
-				for(int m=0;m<cno;m++)
-				{	System.out.print(m+" - - ");
-					for(int n=0;n<getCloudletList().size();n++)
-					{	
-						System.out.print(b[m][n]+"   ");
-					}
-					System.out.println("\n");
-				}
-	}
-	System.out.println("minimum one so far: "+min_one+" current minimum makespan : "+current_min_makespan);
-	}
-	
-	
-		
-	
-	
-	
-	
-	
-	
-	System.out.println("Final MAKESPANS :");
-	for(int w=0;w<cno;w++)
-		System.out.println(final_makespans2[w]);
-	
-	//finding minimum of all the chromosomes in this population
-	
-	double needed_one=final_makespans2[0];
-	for(int w=1;w<cno;w++)
-	{
-		if(needed_one>final_makespans2[w])
-		{
-			needed_one=final_makespans2[w];
-			needed_index=w;
-		}
-	}
-	System.out.println("The Allocation is :");
-	for(int w=0;w<getCloudletList().size();w++)
-	{
-		System.out.println(w+"---"+final_matrix[needed_index][w]+"  ");
-	}
-	System.out.print("\n");
-	System.out.println("With makespan "+ final_makespans2[needed_index]);
+	if(deadline.isExpired() && trace.isEnabled(GaTrace.SUMMARY))
+		trace.log("time limit of "+getGaConfig().getTimeLimit()+" ms reached, using the best allocation so far");
+	//the trace lines of this batch come before its results
+	trace.flush();
+	System.out.println("With makespan "+ bestMakespan);
 	System.out.println("count : "+count);
-	System.out.println("Throughput : "+40/final_makespans2[needed_index]);
+	System.out.println("Throughput : "+cloudletCount/bestMakespan);
 
 	//GA DONE!!! :D
 	
@@ -900,21 +680,14 @@ public class DatacenterBroker extends SimEntity {
 	List<Cloudlet> cloudList2 = getCloudletList();
 	
 	Vm vm;
-	int check[] = new int[20];
-	
-	
-	for(int p=0;p<20;p++)
-	{
-		check[p] = 0;
-	}
-	
 	
 	System.out.println();
 	
+	//genes are vm indexes, cloudlets are bound to the vm ids
+	gene = 0;
 	for(Cloudlet cloudlet : cloudList2)
 	{
-		int id = cloudlet.getCloudletId();
-		cloudlet.setVmId(final_matrix[needed_index][id]);
+		cloudlet.setVmId(getVmsCreatedList().get(best[gene++]).getId());
 	}
 	
 	/*for(Cloudlet cloudlet : cloudList2)
@@ -923,79 +696,39 @@ public class DatacenterBroker extends SimEntity {
 		System.out.println(cloudlet.getVmId());
 	}*/
 	
-	List<Cloudlet> cloudList = getCloudletList();
+	//shortest job first: the cloudlets sorted by length once, then grouped by vm in one pass,
+	//so the queue of every vm stays sorted
+	int sortList11[][] = GaSort.group(best, vmCount, GaSort.order(cllong, false));
 	
-	for(int j=0;j<getVmList().size();j++)
+	//the completion times run from here, or from the arrival of a cloudlet queued earlier
+	for(Cloudlet cloudlet : cloudList2)
 	{
-		if(check[j]==0)
+		if(!getArrivalTimes().containsKey(cloudlet.getCloudletId()))
+			getArrivalTimes().put(cloudlet.getCloudletId(), CloudSim.clock());
+	}
+	
+	for(int j=0;j<vmCount;j++)
+	{
+		vm = getVmsCreatedList().get(j);
+		if(isOnlineDispatch())
 		{
-			List<Cloudlet> sortList11 = new ArrayList<Cloudlet>();
-			ArrayList<Cloudlet> tempList11 = new ArrayList<Cloudlet>();
-			for(Cloudlet cloud : getCloudletList())
-			{
-				if(cloud.getVmId()==j)
-				{
-					tempList11.add(cloud);
-				}
-			}
-			
-			
-			/*System.out.println();
-			for(Cloudlet cllop : tempList11)
+			//the vm gets its shortest cloudlets as its pes free up
+			for(int c : sortList11[j])
 			{
-				System.out.print(cllop.getCloudletId() + ",");
-			}
-			System.out.println();*/
-			
-			
-			
-			int totalCloudlets1 = tempList11.size();
-			
-			for(int i=0;i<totalCloudlets1;i++)
-			{
-				Cloudlet smallestCloudlet = tempList11.get(0);
-				
-				for (Cloudlet checkCloudlet : tempList11) {
-					if(smallestCloudlet.getCloudletLength()>checkCloudlet.getCloudletLength())
-					{
-						smallestCloudlet=checkCloudlet;
-					}
-				}
-				sortList11.add(smallestCloudlet);
-				tempList11.remove(smallestCloudlet);
-			}
-			
-		
-			/*System.out.println();
-			for(Cloudlet cllop : sortList11)
-			{
-				System.out.print(cllop.getCloudletId() + ",");
-			}
-			System.out.println();*/
-			
-			
-			for(Cloudlet cloud1 : sortList11)
-			{
-				if (cloud1.getVmId() == -1) {
-					vm = getVmsCreatedList().get(vmIndex);
-					check[cloud1.getVmId()]=1;
-				} else { // submit to the specific vm
-					vm = VmList.getById(getVmsCreatedList(), cloud1.getVmId());
-					check[cloud1.getVmId()]=1;
-					if (vm == null) { // vm was not created
-						Log.printLine(CloudSim.clock() + ": " + getName() + ": Postponing execution of cloudlet "
-								+ cloud1.getCloudletId() + ": bount VM not available");
-						continue;
-					}
-				Log.printLine(CloudSim.clock() + ": " + getName() + ": Sending cloudlet "
-						+ cloud1.getCloudletId() + " to VM #" + vm.getId());
-				cloud1.setVmId(vm.getId());
-				sendNow(getVmsToDatacentersMap().get(vm.getId()), CloudSimTags.CLOUDLET_SUBMIT, cloud1);
-				cloudletsSubmitted++;
-				vmIndex = (vmIndex + 1) % getVmsCreatedList().size();
-				getCloudletSubmittedList().add(cloud1);
-				}
+				Cloudlet cloudlet = cloudList2.get(c);
+				getDispatchQueue(vm).add(cloudlet, getArrivalTimes().get(cloudlet.getCloudletId()));
 			}
+			dispatchCloudlets(vm);
+			continue;
+		}
+		for(int c : sortList11[j])
+		{
+			Cloudlet cloud1 = cloudList2.get(c);
+			Log.printLine(CloudSim.clock() + ": " + getName() + ": Sending cloudlet "
+					+ cloud1.getCloudletId() + " to VM #" + vm.getId());
+			sendNow(getVmsToDatacentersMap().get(vm.getId()), CloudSimTags.CLOUDLET_SUBMIT, cloud1);
+			cloudletsSubmitted++;
+			getCloudletSubmittedList().add(cloud1);
 		}
 	}
 	
@@ -1062,10 +795,101 @@ public class DatacenterBroker extends SimEntity {
 			getCloudletSubmittedList().add(cloudlet);
 		}
 */
-		// remove submitted cloudlets from waiting list
-		for (Cloudlet cloudlet : getCloudletSubmittedList()) {
-			getCloudletList().remove(cloudlet);
+		// remove submitted cloudlets from waiting list, the queued ones too in online mode
+		if (isOnlineDispatch()) {
+			getCloudletList().clear();
+		} else {
+			getCloudletList().removeAll(new HashSet<Cloudlet>(getCloudletSubmittedList()));
+		}
+	}
+
+	/**
+	 * Gets the dispatch queue of a vm, created empty with all the pes of the vm free if needed.
+	 * A vm whose scheduler is not space shared runs all its cloudlets at once, so its queue is
+	 * never held back.
+	 * 
+	 * @param vm the vm
+	 * @return the queue
+	 * @pre vm != null
+	 * @post $none
+	 */
+	protected CloudletDispatchQueue getDispatchQueue(Vm vm) {
+		CloudletDispatchQueue queue = getDispatchQueues().get(vm.getId());
+		if (queue == null) {
+			queue = new CloudletDispatchQueue(getAgingFactor());
+			getDispatchQueues().put(vm.getId(), queue);
+			boolean spaceShared = vm.getCloudletScheduler() instanceof CloudletSchedulerSpaceShared;
+			getFreePes().put(vm.getId(), spaceShared ? vm.getNumberOfPes() : Integer.MAX_VALUE);
+		}
+		return queue;
+	}
+
+	/**
+	 * Sends a vm the shortest cloudlets of its queue for as long as it has free pes. A cloudlet
+	 * needing more pes than the vm has is sent when the vm is idle.
+	 * 
+	 * @param vm the vm
+	 * @pre vm != null
+	 * @post $none
+	 */
+	protected void dispatchCloudlets(Vm vm) {
+		CloudletDispatchQueue queue = getDispatchQueue(vm);
+		int freePes = getFreePes().get(vm.getId());
+		while (!queue.isEmpty()
+				&& (queue.peek().getNumberOfPes() <= freePes || freePes >= vm.getNumberOfPes())) {
+			Cloudlet cloudlet = queue.poll();
+			freePes -= cloudlet.getNumberOfPes();
+			Log.printLine(CloudSim.clock() + ": " + getName() + ": Sending cloudlet "
+					+ cloudlet.getCloudletId() + " to VM #" + vm.getId());
+			cloudlet.setVmId(vm.getId());
+			sendNow(getVmsToDatacentersMap().get(vm.getId()), CloudSimTags.CLOUDLET_SUBMIT, cloudlet);
+			cloudletsSubmitted++;
+			getCloudletSubmittedList().add(cloudlet);
+		}
+		getFreePes().put(vm.getId(), freePes);
+	}
+
+	/**
+	 * Queues a cloudlet arriving while the simulation runs, in online dispatch mode. A bound
+	 * cloudlet joins the queue of its vm; an unbound one the queue of the vm that would finish
+	 * the work queued on it first. Before any vm is created the cloudlet waits in the cloudlet
+	 * list for the first submission; a cloudlet bound to a vm the broker does not have is
+	 * rejected.
+	 * 
+	 * @param cloudlet the cloudlet
+	 * @pre cloudlet != null
+	 * @post $none
+	 */
+	protected void queueCloudlet(Cloudlet cloudlet) {
+		Vm vm = null;
+		if (cloudlet.getVmId() != -1) {
+			vm = VmList.getById(getVmsCreatedList(), cloudlet.getVmId());
+		} else {
+			double earliest = Double.MAX_VALUE;
+			for (Vm candidate : getVmsCreatedList()) {
+				double finish = (getDispatchQueue(candidate).getQueuedLength() + cloudlet.getCloudletLength())
+						/ candidate.getMips();
+				if (finish < earliest) {
+					earliest = finish;
+					vm = candidate;
+				}
+			}
+		}
+		cloudlet.setUserId(getId());
+		if (vm == null && !getVmsCreatedList().isEmpty()) {
+			Log.printLine(CloudSim.clock() + ": " + getName() + ": Rejecting cloudlet " + cloudlet.getCloudletId()
+					+ ", bound to VM #" + cloudlet.getVmId() + " which the broker does not have");
+			return;
+		}
+		getArrivalTimes().put(cloudlet.getCloudletId(), CloudSim.clock());
+		if (vm == null) {
+			// no vm yet: the first submission picks it up
+			getCloudletList().add(cloudlet);
+			return;
 		}
+		cloudlet.setVmId(vm.getId());
+		getDispatchQueue(vm).add(cloudlet, CloudSim.clock());
+		dispatchCloudlets(vm);
 	}
 
 	/**
@@ -1333,6 +1157,394 @@ public class DatacenterBroker extends SimEntity {
 		this.datacenterCharacteristicsList = datacenterCharacteristicsList;
 	}
 
+	/**
+	 * Checks whether the GA evaluates its population on the ForkJoin common pool.
+	 * 
+	 * @return true if the evaluation is parallel
+	 */
+	public boolean isParallelEvaluation() {
+		return parallelEvaluation;
+	}
+
+	/**
+	 * Sets whether the GA evaluates its population on the ForkJoin common pool. The allocation
+	 * found is the same either way. Only the full evaluations are parallel, the updates after
+	 * crossover and mutation are not, see GaParallelBenchmark for the speedup.
+	 * 
+	 * @param parallelEvaluation true to evaluate in parallel
+	 */
+	public void setParallelEvaluation(boolean parallelEvaluation) {
+		this.parallelEvaluation = parallelEvaluation;
+	}
+
+	/**
+	 * Gets the number of GA islands.
+	 * 
+	 * @return the island count
+	 */
+	public int getIslandCount() {
+		return islandCount;
+	}
+
+	/**
+	 * Sets the number of GA islands. With more than one island, the populations evolve on
+	 * separate threads in place of the single population, see {@link GaIslands}.
+	 * 
+	 * @param islandCount the island count
+	 * @pre islandCount > 0
+	 */
+	public void setIslandCount(int islandCount) {
+		this.islandCount = islandCount;
+	}
+
+	/**
+	 * Gets the number of generations between two migrations of the GA islands.
+	 * 
+	 * @return the migration interval
+	 */
+	public int getMigrationInterval() {
+		return migrationInterval;
+	}
+
+	/**
+	 * Sets the number of generations between two migrations of the GA islands.
+	 * 
+	 * @param migrationInterval the migration interval
+	 * @pre migrationInterval > 0
+	 */
+	public void setMigrationInterval(int migrationInterval) {
+		this.migrationInterval = migrationInterval;
+	}
+
+	/**
+	 * Checks whether the GA islands run in separate local processes.
+	 * 
+	 * @return true if the islands are distributed
+	 */
+	public boolean isDistributedIslands() {
+		return distributedIslands;
+	}
+
+	/**
+	 * Sets whether the GA islands run in separate local processes, see
+	 * {@link GaDistributedIslands}. It only matters with more than one island. The workers are
+	 * started with the class path of this JVM.
+	 * 
+	 * @param distributedIslands true to run each island in its own process
+	 */
+	public void setDistributedIslands(boolean distributedIslands) {
+		this.distributedIslands = distributedIslands;
+	}
+
+	/**
+	 * Checks whether the GA population is kept off the heap.
+	 * 
+	 * @return true if the population is off the heap
+	 */
+	public boolean isOffHeapPopulation() {
+		return offHeapPopulation;
+	}
+
+	/**
+	 * Sets whether the GA population is kept off the heap, see {@link GaOffHeapPopulation}. The
+	 * storage is released at the end of each call to {@link #submitCloudlets()}. It applies to
+	 * the single population GA; islands keep their populations on the heap.
+	 * 
+	 * @param offHeapPopulation true to keep the population off the heap
+	 */
+	public void setOffHeapPopulation(boolean offHeapPopulation) {
+		this.offHeapPopulation = offHeapPopulation;
+	}
+
+	/**
+	 * Checks whether the GA population packs its genes.
+	 * 
+	 * @return true if the population is packed
+	 */
+	public boolean isPackedPopulation() {
+		return packedPopulation;
+	}
+
+	/**
+	 * Sets whether the GA population packs its genes in as few bits as the vm count needs, see
+	 * {@link GaPackedPopulation}. It takes precedence over {@link #setOffHeapPopulation(boolean)}.
+	 * 
+	 * @param packedPopulation true to pack the population
+	 */
+	public void setPackedPopulation(boolean packedPopulation) {
+		this.packedPopulation = packedPopulation;
+	}
+
+	/**
+	 * Gets the parameters of the GA.
+	 * 
+	 * @return the GA configuration
+	 */
+	public GaConfig getGaConfig() {
+		return gaConfig;
+	}
+
+	/**
+	 * Sets the parameters of the GA: population size, crossover and mutation rates, elite
+	 * count, selection strategy and termination, including the time limit that bounds the
+	 * scheduling latency. See {@link GaConfig#load(String)} to read them
+	 * from a properties file.
+	 * 
+	 * @param gaConfig the GA configuration
+	 * @pre gaConfig != null
+	 */
+	public void setGaConfig(GaConfig gaConfig) {
+		this.gaConfig = gaConfig;
+	}
+
+	/**
+	 * Creates the cost objective of the multi-objective GA from the characteristics of the
+	 * datacenter hosting each created vm. A vm whose datacenter is unknown costs nothing.
+	 * 
+	 * @param etc the expected time to compute of each cloudlet on each vm
+	 * @return the cost objective
+	 */
+	protected GaCost createGaCost(GaEtc etc) {
+		int vmCount = getVmsCreatedList().size();
+		double[] secondRates = new double[vmCount];
+		double[] transferRates = new double[vmCount];
+		double[] vmCosts = new double[vmCount];
+		for (int j = 0; j < vmCount; j++) {
+			Vm vm = getVmsCreatedList().get(j);
+			Integer datacenterId = getVmsToDatacentersMap().get(vm.getId());
+			DatacenterCharacteristics characteristics = datacenterId == null ? null
+					: getDatacenterCharacteristicsList().get(datacenterId);
+			if (characteristics != null) {
+				secondRates[j] = characteristics.getCostPerSecond();
+				transferRates[j] = characteristics.getCostPerBw();
+				vmCosts[j] = characteristics.getCostPerMem() * vm.getRam() + characteristics.getCostPerStorage()
+						* vm.getSize();
+			}
+		}
+		double[] transfers = new double[getCloudletList().size()];
+		for (int i = 0; i < transfers.length; i++) {
+			Cloudlet cloudlet = getCloudletList().get(i);
+			transfers[i] = cloudlet.getCloudletFileSize() + cloudlet.getCloudletOutputSize();
+		}
+		return new GaCost(etc, secondRates, transferRates, vmCosts, transfers);
+	}
+
+	/**
+	 * Checks whether the GA trades the makespan against the monetary cost.
+	 * 
+	 * @return true if the GA is multi-objective
+	 */
+	public boolean isMultiObjective() {
+		return multiObjective;
+	}
+
+	/**
+	 * Sets whether the GA trades the makespan against the monetary cost, see
+	 * {@link GaNsgaEngine}. The allocation dispatched is then picked from the Pareto front by
+	 * the Pareto policy, or by the cost budget if one is set. It runs a single population.
+	 * 
+	 * @param multiObjective true for the multi-objective GA
+	 */
+	public void setMultiObjective(boolean multiObjective) {
+		this.multiObjective = multiObjective;
+	}
+
+	/**
+	 * Gets the policy picking the allocation to dispatch from the Pareto front.
+	 * 
+	 * @return the Pareto policy
+	 */
+	public int getParetoPolicy() {
+		return paretoPolicy;
+	}
+
+	/**
+	 * Sets the policy picking the allocation to dispatch from the Pareto front:
+	 * {@link GaParetoFront#FASTEST}, {@link GaParetoFront#CHEAPEST} or
+	 * {@link GaParetoFront#KNEE}, the default.
+	 * 
+	 * @param paretoPolicy the Pareto policy
+	 */
+	public void setParetoPolicy(int paretoPolicy) {
+		this.paretoPolicy = paretoPolicy;
+	}
+
+	/**
+	 * Gets the cost budget of the allocation picked from the Pareto front.
+	 * 
+	 * @return the cost budget, 0 for none
+	 */
+	public double getCostBudget() {
+		return costBudget;
+	}
+
+	/**
+	 * Sets the cost budget of the allocation picked from the Pareto front. When set, the fastest
+	 * allocation within the budget is dispatched, or the cheapest one if none is.
+	 * 
+	 * @param costBudget the cost budget, 0 for none
+	 */
+	public void setCostBudget(double costBudget) {
+		this.costBudget = costBudget;
+	}
+
+	/**
+	 * Gets the trace of the GA.
+	 * 
+	 * @return the GA trace
+	 */
+	public GaTrace getGaTrace() {
+		return gaTrace;
+	}
+
+	/**
+	 * Sets the trace of the GA. It is {@link GaTrace#DISABLED} by default; the caller closes the
+	 * traces it sets when the simulation is over.
+	 * 
+	 * @param gaTrace the GA trace
+	 * @pre gaTrace != null
+	 */
+	public void setGaTrace(GaTrace gaTrace) {
+		this.gaTrace = gaTrace;
+	}
+
+	/**
+	 * Gets the cache of the best allocations of past batches.
+	 * 
+	 * @return the solution cache, or null if the GA always starts cold
+	 */
+	public GaSolutionCache getSolutionCache() {
+		return solutionCache;
+	}
+
+	/**
+	 * Sets the cache of the best allocations of past batches. The allocations cached for a
+	 * similar batch seed the GA, and the best allocation of every batch is stored in it. There is
+	 * no cache unless one is set here, and brokers may share one cache.
+	 * 
+	 * @param solutionCache the solution cache, or null to always start cold
+	 */
+	public void setSolutionCache(GaSolutionCache solutionCache) {
+		this.solutionCache = solutionCache;
+	}
+
+	/**
+	 * Checks whether the cloudlets are sent to each vm as its pes free up.
+	 * 
+	 * @return true in online dispatch mode
+	 */
+	public boolean isOnlineDispatch() {
+		return onlineDispatch;
+	}
+
+	/**
+	 * Sets whether the cloudlets are sent to each vm as its pes free up, shortest first, instead
+	 * of all at once after the GA. The broker then keeps a {@link CloudletDispatchQueue} per vm
+	 * and sends the next cloudlet when one returns, which keeps the event queue of the
+	 * datacenter short and lets a short cloudlet arriving late, sent to the broker with
+	 * {@link CloudSimTags#CLOUDLET_SUBMIT}, overtake the long ones still queued.
+	 * 
+	 * @param onlineDispatch true for online dispatch
+	 */
+	public void setOnlineDispatch(boolean onlineDispatch) {
+		this.onlineDispatch = onlineDispatch;
+	}
+
+	/**
+	 * Gets the dispatch queues.
+	 * 
+	 * @return the dispatch queues, by vm id
+	 */
+	protected Map<Integer, CloudletDispatchQueue> getDispatchQueues() {
+		return dispatchQueues;
+	}
+
+	/**
+	 * Sets the dispatch queues.
+	 * 
+	 * @param dispatchQueues the dispatch queues, by vm id
+	 */
+	protected void setDispatchQueues(Map<Integer, CloudletDispatchQueue> dispatchQueues) {
+		this.dispatchQueues = dispatchQueues;
+	}
+
+	/**
+	 * Gets the free pes of the vms.
+	 * 
+	 * @return the free pes, by vm id
+	 */
+	protected Map<Integer, Integer> getFreePes() {
+		return freePes;
+	}
+
+	/**
+	 * Sets the free pes of the vms.
+	 * 
+	 * @param freePes the free pes, by vm id
+	 */
+	protected void setFreePes(Map<Integer, Integer> freePes) {
+		this.freePes = freePes;
+	}
+
+	/**
+	 * Gets the aging factor of the dispatch queues.
+	 * 
+	 * @return the MI a queued cloudlet gains per second it waits
+	 */
+	public double getAgingFactor() {
+		return agingFactor;
+	}
+
+	/**
+	 * Sets the aging factor of the dispatch queues, see {@link CloudletDispatchQueue}. At 0, the
+	 * default, a vm always gets its shortest queued cloudlet; the larger the factor, the sooner a
+	 * long cloudlet passes the short ones arriving after it, trading the median completion time
+	 * for the 99th percentile, both printed when all the cloudlets have returned. It applies to
+	 * the queues created afterwards, in online dispatch mode.
+	 * 
+	 * @param agingFactor the MI a queued cloudlet gains per second it waits
+	 * @pre agingFactor >= 0
+	 */
+	public void setAgingFactor(double agingFactor) {
+		this.agingFactor = agingFactor;
+	}
+
+	/**
+	 * Gets the arrival times of the cloudlets not yet returned.
+	 * 
+	 * @return the arrival times, by cloudlet id
+	 */
+	protected Map<Integer, Double> getArrivalTimes() {
+		return arrivalTimes;
+	}
+
+	/**
+	 * Sets the arrival times of the cloudlets not yet returned.
+	 * 
+	 * @param arrivalTimes the arrival times, by cloudlet id
+	 */
+	protected void setArrivalTimes(Map<Integer, Double> arrivalTimes) {
+		this.arrivalTimes = arrivalTimes;
+	}
+
+	/**
+	 * Gets the completion times of the cloudlets returned, from their arrival at the broker.
+	 * 
+	 * @return the completion times
+	 */
+	public CloudletCompletionTimes getCompletionTimes() {
+		return completionTimes;
+	}
+
+	/**
+	 * Sets the completion times of the cloudlets returned.
+	 * 
+	 * @param completionTimes the completion times
+	 */
+	protected void setCompletionTimes(CloudletCompletionTimes completionTimes) {
+		this.completionTimes = completionTimes;
+	}
+
 	/**
 	 * Gets the datacenter requested ids list.
 	 * 
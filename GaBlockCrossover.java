@@ -0,0 +1,43 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.SplittableRandom;
+
+/**
+ * GaBlockCrossover is the crossover the broker has always used: the first V genes of the first
+ * parent are exchanged with genes V to 2V - 1 of the second one, V being the vm count. The genes
+ * change position, and which ones move depends on the vm count rather than on a random cut. It
+ * is kept as the default so runs stay comparable with earlier releases.
+ */
+public class GaBlockCrossover extends GaCrossover {
+
+	@Override
+	public void cross(GaPopulation population, GaLoadTracker loads, int first, int second, SplittableRandom random) {
+		int cloudletCount = population.getGeneCount();
+		int vmCount = population.getVmCount();
+		for (int n = 0, o = vmCount; n < vmCount && o < cloudletCount; n++, o++) {
+			int temp = population.getGene(first, n);
+			int other = population.getGene(second, o);
+			if (loads == null) {
+				population.setGene(first, n, other);
+				population.setGene(second, o, temp);
+			} else {
+				loads.setGene(population, first, n, other);
+				loads.setGene(population, second, o, temp);
+			}
+		}
+	}
+
+	@Override
+	public String getName() {
+		return "block";
+	}
+
+}
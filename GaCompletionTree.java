@@ -0,0 +1,199 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.Arrays;
+
+/**
+ * GaCompletionTree finds the vm on which a cloudlet would complete first, given the time each vm
+ * becomes ready. The completion time of a cloudlet of length l on vm v is
+ * <code>ready[v] + l / mips[v]</code>, a line in l for each vm, so the answer is the lowest line
+ * at l.
+ * <p>
+ * The tree is a kinetic tournament: every node keeps the winner of its subtree together with the
+ * interval of lengths over which that winner stays the lowest line. A query only replays the
+ * nodes whose interval does not hold the new length, and changing the ready time of a vm replays
+ * the path above it, in O(log V). When the queried lengths move in one direction, as in Min-Min
+ * and Max-Min, each winner changes a bounded number of times between two updates of its
+ * subtree, so a query costs O(log V) amortized.
+ */
+public class GaCompletionTree {
+
+	/** The mips of each vm. */
+	private final double[] mips;
+
+	/** The time each vm becomes ready. */
+	private final double[] ready;
+
+	/** The number of leaves, the vm count rounded up to a power of two. */
+	private final int leaves;
+
+	/** The winner of each node, or -1 for an empty subtree. */
+	private final int[] winner;
+
+	/** The shortest length for which each node is valid. */
+	private final double[] low;
+
+	/** The longest length for which each node is valid. */
+	private final double[] high;
+
+	/** The length of the last query. */
+	private double length;
+
+	/**
+	 * Creates a tree with every vm ready at time 0.
+	 *
+	 * @param mips the mips of each vm
+	 * @pre mips.length > 0
+	 * @post $none
+	 */
+	public GaCompletionTree(double[] mips) {
+		this.mips = mips;
+		ready = new double[mips.length];
+		leaves = Integer.highestOneBit(Math.max(1, mips.length - 1)) << (mips.length > 1 ? 1 : 0);
+		winner = new int[2 * leaves];
+		low = new double[2 * leaves];
+		high = new double[2 * leaves];
+		Arrays.fill(winner, -1);
+		Arrays.fill(low, Double.NEGATIVE_INFINITY);
+		Arrays.fill(high, Double.POSITIVE_INFINITY);
+		for (int vm = 0; vm < mips.length; vm++) {
+			winner[leaves + vm] = vm;
+		}
+		for (int i = leaves - 1; i > 0; i--) {
+			play(i);
+		}
+	}
+
+	/**
+	 * Gets the completion time of a cloudlet on a vm.
+	 *
+	 * @param vm the vm
+	 * @param cloudletLength the length of the cloudlet
+	 * @return the ready time of the vm plus the execution time of the cloudlet
+	 */
+	public double completion(int vm, double cloudletLength) {
+		return ready[vm] + cloudletLength / mips[vm];
+	}
+
+	/**
+	 * Gets the time a vm becomes ready.
+	 *
+	 * @param vm the vm
+	 * @return the ready time
+	 */
+	public double getReady(int vm) {
+		return ready[vm];
+	}
+
+	/**
+	 * Sets the time a vm becomes ready, usually the completion time of the cloudlet just given
+	 * to it.
+	 *
+	 * @param vm the vm
+	 * @param time the ready time
+	 */
+	public void setReady(int vm, double time) {
+		ready[vm] = time;
+		for (int i = (leaves + vm) >>> 1; i > 0; i >>>= 1) {
+			play(i);
+		}
+	}
+
+	/**
+	 * Finds the vm on which a cloudlet would complete first.
+	 *
+	 * @param cloudletLength the length of the cloudlet
+	 * @return the vm
+	 */
+	public int best(double cloudletLength) {
+		length = cloudletLength;
+		replay(1);
+		return winner[1];
+	}
+
+	/**
+	 * Finds the vm on which a cloudlet would complete second, after a call to
+	 * {@link #best(double)} with the same length.
+	 *
+	 * @return the vm, or -1 if there is a single vm
+	 */
+	public int runnerUp() {
+		int first = winner[1];
+		int second = -1;
+		for (int i = leaves + first; i > 1; i >>>= 1) {
+			int sibling = winner[i ^ 1];
+			if (sibling >= 0 && (second < 0 || before(sibling, second))) {
+				second = sibling;
+			}
+		}
+		return second;
+	}
+
+	/**
+	 * Replays the nodes of a subtree that are not valid for the current length.
+	 *
+	 * @param i the root of the subtree
+	 */
+	private void replay(int i) {
+		if (i >= leaves || (low[i] <= length && length <= high[i])) {
+			return;
+		}
+		replay(2 * i);
+		replay(2 * i + 1);
+		play(i);
+	}
+
+	/**
+	 * Sets the winner of a node from the winners of its children, at the current length, and the
+	 * interval over which it stays valid.
+	 *
+	 * @param i the node
+	 */
+	private void play(int i) {
+		int left = 2 * i;
+		int right = left + 1;
+		low[i] = Math.max(low[left], low[right]);
+		high[i] = Math.min(high[left], high[right]);
+		int a = winner[left];
+		int b = winner[right];
+		if (a < 0 || b < 0) {
+			winner[i] = a < 0 ? b : a;
+			return;
+		}
+		int first = before(a, b) ? a : b;
+		int second = first == a ? b : a;
+		winner[i] = first;
+		if (mips[first] == mips[second]) {
+			// parallel lines never cross
+			return;
+		}
+		double cross = (ready[second] - ready[first]) / (1 / mips[first] - 1 / mips[second]);
+		if (mips[first] > mips[second]) {
+			// the faster vm keeps winning on longer cloudlets
+			low[i] = Math.max(low[i], cross);
+		} else {
+			high[i] = Math.min(high[i], cross);
+		}
+	}
+
+	/**
+	 * Checks whether a cloudlet of the current length completes on a vm before another one.
+	 *
+	 * @param a the first vm
+	 * @param b the second vm
+	 * @return true if it completes first on a, or at the same time and a has the lower index
+	 */
+	private boolean before(int a, int b) {
+		double ca = completion(a, length);
+		double cb = completion(b, length);
+		return ca < cb || (ca == cb && a < b);
+	}
+
+}
@@ -0,0 +1,560 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * GaConfig holds the parameters of the genetic algorithm run by the {@link DatacenterBroker}. A
+ * configuration is immutable; it is made with a {@link Builder} or loaded from a properties file,
+ * so each deployment can trade allocation quality for scheduling time without recompiling.
+ * <p>
+ * The properties are, with their defaults, the values the broker has always used:
+ * <ul>
+ * <li><code>ga.populationSize</code>: the number of chromosomes, 20;
+ * <li><code>ga.crossoverRate</code>: the probability that a pair of parents is crossed over, 1;
+ * <li><code>ga.mutationRate</code>: the probability that a chromosome gets one random gene in a
+ * mutation generation, 1;
+ * <li><code>ga.mutationInterval</code>: the number of generations between two mutations, 6;
+ * <li><code>ga.eliteCount</code>: the number of best chromosomes carried over unchanged, 1;
+ * <li><code>ga.maxGenerations</code>: the generation cap, 0 for none;
+ * <li><code>ga.stagnation</code>: the number of generations in a row without improvement that
+ * ends the run, 3;
+ * <li><code>ga.localSearchMoves</code>: the most hill climbing steps applied to the best
+ * chromosome after each generation, 0 to turn the memetic stage off, 0;
+ * <li><code>ga.timeLimit</code>: the wall-clock budget of a run in milliseconds, after which the
+ * best allocation found so far is used, 0 for none;
+ * <li><code>ga.seed</code>: the seed of the random streams of a run, which makes it reproducible
+ * with one island and no time limit, 0 to draw a new seed for every run, 0;
+ * <li><code>ga.selection</code>: the selection strategy, see {@link GaSelection#forName(String)},
+ * truncation;
+ * <li><code>ga.crossover</code>: the crossover operator, see {@link GaCrossover#forName(String)},
+ * block.
+ * </ul>
+ */
+public final class GaConfig {
+
+	/** The configuration with every parameter at its default. */
+	public static final GaConfig DEFAULT = new Builder().build();
+
+	/** The number of chromosomes. */
+	private final int populationSize;
+
+	/** The probability that a pair of parents is crossed over. */
+	private final double crossoverRate;
+
+	/** The probability that a chromosome gets one random gene in a mutation generation. */
+	private final double mutationRate;
+
+	/** The number of generations between two mutations. */
+	private final int mutationInterval;
+
+	/** The number of best chromosomes carried unchanged into the next generation. */
+	private final int eliteCount;
+
+	/** The maximum number of generations, 0 for none. */
+	private final int maxGenerations;
+
+	/** The number of generations in a row without improvement that ends the run. */
+	private final int stagnation;
+
+	/** The most hill climbing steps applied to the best chromosome after each generation. */
+	private final int localSearchMoves;
+
+	/** The wall-clock budget of a run in milliseconds, 0 for none. */
+	private final long timeLimit;
+
+	/** The seed of the random streams of a run, 0 for a new seed every run. */
+	private final long seed;
+
+	/** The selection strategy. */
+	private final GaSelection selection;
+
+	/** The crossover operator. */
+	private final GaCrossover crossover;
+
+	/**
+	 * Creates a configuration from a validated builder.
+	 *
+	 * @param builder the builder
+	 */
+	private GaConfig(Builder builder) {
+		populationSize = builder.populationSize;
+		crossoverRate = builder.crossoverRate;
+		mutationRate = builder.mutationRate;
+		mutationInterval = builder.mutationInterval;
+		eliteCount = builder.eliteCount;
+		maxGenerations = builder.maxGenerations;
+		stagnation = builder.stagnation;
+		localSearchMoves = builder.localSearchMoves;
+		timeLimit = builder.timeLimit;
+		seed = builder.seed;
+		selection = builder.selection;
+		crossover = builder.crossover;
+	}
+
+	/**
+	 * Creates a builder starting from the defaults.
+	 *
+	 * @return the builder
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Creates a builder starting from this configuration.
+	 *
+	 * @return the builder
+	 */
+	public Builder toBuilder() {
+		Builder builder = new Builder();
+		builder.populationSize = populationSize;
+		builder.crossoverRate = crossoverRate;
+		builder.mutationRate = mutationRate;
+		builder.mutationInterval = mutationInterval;
+		builder.eliteCount = eliteCount;
+		builder.maxGenerations = maxGenerations;
+		builder.stagnation = stagnation;
+		builder.localSearchMoves = localSearchMoves;
+		builder.timeLimit = timeLimit;
+		builder.seed = seed;
+		builder.selection = selection;
+		builder.crossover = crossover;
+		return builder;
+	}
+
+	/**
+	 * Loads a configuration from a properties file. Missing properties keep their default.
+	 *
+	 * @param file the path of the file
+	 * @return the configuration
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if a property is invalid
+	 */
+	public static GaConfig load(String file) throws IOException {
+		Properties properties = new Properties();
+		InputStream in = new FileInputStream(file);
+		try {
+			properties.load(in);
+		} finally {
+			in.close();
+		}
+		return fromProperties(properties);
+	}
+
+	/**
+	 * Reads a configuration from properties. Missing properties keep their default.
+	 *
+	 * @param properties the properties
+	 * @return the configuration
+	 * @throws IllegalArgumentException if a property is invalid
+	 */
+	public static GaConfig fromProperties(Properties properties) {
+		Builder builder = new Builder();
+		try {
+			String value = properties.getProperty("ga.populationSize");
+			if (value != null) {
+				builder.populationSize(Integer.parseInt(value.trim()));
+			}
+			value = properties.getProperty("ga.crossoverRate");
+			if (value != null) {
+				builder.crossoverRate(Double.parseDouble(value.trim()));
+			}
+			value = properties.getProperty("ga.mutationRate");
+			if (value != null) {
+				builder.mutationRate(Double.parseDouble(value.trim()));
+			}
+			value = properties.getProperty("ga.mutationInterval");
+			if (value != null) {
+				builder.mutationInterval(Integer.parseInt(value.trim()));
+			}
+			value = properties.getProperty("ga.eliteCount");
+			if (value != null) {
+				builder.eliteCount(Integer.parseInt(value.trim()));
+			}
+			value = properties.getProperty("ga.maxGenerations");
+			if (value != null) {
+				builder.maxGenerations(Integer.parseInt(value.trim()));
+			}
+			value = properties.getProperty("ga.stagnation");
+			if (value != null) {
+				builder.stagnation(Integer.parseInt(value.trim()));
+			}
+			value = properties.getProperty("ga.localSearchMoves");
+			if (value != null) {
+				builder.localSearchMoves(Integer.parseInt(value.trim()));
+			}
+			value = properties.getProperty("ga.timeLimit");
+			if (value != null) {
+				builder.timeLimit(Long.parseLong(value.trim()));
+			}
+			value = properties.getProperty("ga.seed");
+			if (value != null) {
+				builder.seed(Long.parseLong(value.trim()));
+			}
+			value = properties.getProperty("ga.selection");
+			if (value != null) {
+				builder.selection(GaSelection.forName(value));
+			}
+			value = properties.getProperty("ga.crossover");
+			if (value != null) {
+				builder.crossover(GaCrossover.forName(value));
+			}
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("GaConfig: " + e.getMessage(), e);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Writes this configuration as properties, which {@link #fromProperties(Properties)} reads
+	 * back into an equal configuration.
+	 *
+	 * @return the properties
+	 */
+	public Properties toProperties() {
+		Properties properties = new Properties();
+		properties.setProperty("ga.populationSize", String.valueOf(populationSize));
+		properties.setProperty("ga.crossoverRate", String.valueOf(crossoverRate));
+		properties.setProperty("ga.mutationRate", String.valueOf(mutationRate));
+		properties.setProperty("ga.mutationInterval", String.valueOf(mutationInterval));
+		properties.setProperty("ga.eliteCount", String.valueOf(eliteCount));
+		properties.setProperty("ga.maxGenerations", String.valueOf(maxGenerations));
+		properties.setProperty("ga.stagnation", String.valueOf(stagnation));
+		properties.setProperty("ga.localSearchMoves", String.valueOf(localSearchMoves));
+		properties.setProperty("ga.timeLimit", String.valueOf(timeLimit));
+		properties.setProperty("ga.seed", String.valueOf(seed));
+		properties.setProperty("ga.selection", selection.getName());
+		properties.setProperty("ga.crossover", crossover.getName());
+		return properties;
+	}
+
+	/**
+	 * Gets the number of chromosomes.
+	 *
+	 * @return the population size
+	 */
+	public int getPopulationSize() {
+		return populationSize;
+	}
+
+	/**
+	 * Gets the probability that a pair of parents is crossed over.
+	 *
+	 * @return the crossover rate
+	 */
+	public double getCrossoverRate() {
+		return crossoverRate;
+	}
+
+	/**
+	 * Gets the probability that a chromosome gets one random gene in a mutation generation.
+	 *
+	 * @return the mutation rate
+	 */
+	public double getMutationRate() {
+		return mutationRate;
+	}
+
+	/**
+	 * Gets the number of generations between two mutations.
+	 *
+	 * @return the mutation interval
+	 */
+	public int getMutationInterval() {
+		return mutationInterval;
+	}
+
+	/**
+	 * Gets the number of best chromosomes carried unchanged into the next generation.
+	 *
+	 * @return the elite count
+	 */
+	public int getEliteCount() {
+		return eliteCount;
+	}
+
+	/**
+	 * Gets the generation cap.
+	 *
+	 * @return the maximum number of generations, 0 for none
+	 */
+	public int getMaxGenerations() {
+		return maxGenerations;
+	}
+
+	/**
+	 * Gets the number of generations in a row without improvement that ends the run.
+	 *
+	 * @return the stagnation window
+	 */
+	public int getStagnation() {
+		return stagnation;
+	}
+
+	/**
+	 * Gets the most hill climbing steps applied to the best chromosome after each generation.
+	 *
+	 * @return the local search moves, 0 if the memetic stage is off
+	 */
+	public int getLocalSearchMoves() {
+		return localSearchMoves;
+	}
+
+	/**
+	 * Gets the wall-clock budget of a run.
+	 *
+	 * @return the time limit in milliseconds, 0 for none
+	 */
+	public long getTimeLimit() {
+		return timeLimit;
+	}
+
+	/**
+	 * Gets the seed of the random streams of a run.
+	 *
+	 * @return the seed, 0 for a new seed every run
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Gets the selection strategy.
+	 *
+	 * @return the selection strategy
+	 */
+	public GaSelection getSelection() {
+		return selection;
+	}
+
+	/**
+	 * Gets the crossover operator.
+	 *
+	 * @return the crossover operator
+	 */
+	public GaCrossover getCrossover() {
+		return crossover;
+	}
+
+	@Override
+	public String toString() {
+		return "GaConfig" + toProperties();
+	}
+
+	/**
+	 * Builder makes a {@link GaConfig}, starting from the defaults. The values are checked by
+	 * {@link #build()}.
+	 */
+	public static final class Builder {
+
+		private int populationSize = 20;
+
+		private double crossoverRate = 1.0;
+
+		private double mutationRate = 1.0;
+
+		private int mutationInterval = 6;
+
+		private int eliteCount = 1;
+
+		private int maxGenerations;
+
+		private int stagnation = 3;
+
+		private int localSearchMoves;
+
+		private long timeLimit;
+
+		private long seed;
+
+		private GaSelection selection = new GaTruncationSelection();
+
+		private GaCrossover crossover = new GaBlockCrossover();
+
+		private Builder() {
+		}
+
+		/**
+		 * Sets the number of chromosomes.
+		 *
+		 * @param populationSize the population size, at least 2
+		 * @return this builder
+		 */
+		public Builder populationSize(int populationSize) {
+			this.populationSize = populationSize;
+			return this;
+		}
+
+		/**
+		 * Sets the probability that a pair of parents is crossed over.
+		 *
+		 * @param crossoverRate the crossover rate, in [0, 1]
+		 * @return this builder
+		 */
+		public Builder crossoverRate(double crossoverRate) {
+			this.crossoverRate = crossoverRate;
+			return this;
+		}
+
+		/**
+		 * Sets the probability that a chromosome gets one random gene in a mutation generation.
+		 *
+		 * @param mutationRate the mutation rate, in [0, 1]
+		 * @return this builder
+		 */
+		public Builder mutationRate(double mutationRate) {
+			this.mutationRate = mutationRate;
+			return this;
+		}
+
+		/**
+		 * Sets the number of generations between two mutations.
+		 *
+		 * @param mutationInterval the mutation interval, at least 1
+		 * @return this builder
+		 */
+		public Builder mutationInterval(int mutationInterval) {
+			this.mutationInterval = mutationInterval;
+			return this;
+		}
+
+		/**
+		 * Sets the number of best chromosomes carried unchanged into the next generation.
+		 *
+		 * @param eliteCount the elite count, below the population size
+		 * @return this builder
+		 */
+		public Builder eliteCount(int eliteCount) {
+			this.eliteCount = eliteCount;
+			return this;
+		}
+
+		/**
+		 * Sets the generation cap.
+		 *
+		 * @param maxGenerations the maximum number of generations, 0 for none
+		 * @return this builder
+		 */
+		public Builder maxGenerations(int maxGenerations) {
+			this.maxGenerations = maxGenerations;
+			return this;
+		}
+
+		/**
+		 * Sets the number of generations in a row without improvement that ends the run.
+		 *
+		 * @param stagnation the stagnation window, at least 1
+		 * @return this builder
+		 */
+		public Builder stagnation(int stagnation) {
+			this.stagnation = stagnation;
+			return this;
+		}
+
+		/**
+		 * Sets the most hill climbing steps applied to the best chromosome after each
+		 * generation, see {@link GaLocalSearch}.
+		 *
+		 * @param localSearchMoves the local search moves, 0 to turn the memetic stage off
+		 * @return this builder
+		 */
+		public Builder localSearchMoves(int localSearchMoves) {
+			this.localSearchMoves = localSearchMoves;
+			return this;
+		}
+
+		/**
+		 * Sets the wall-clock budget of a run, after which the best allocation found so far is
+		 * used.
+		 *
+		 * @param timeLimit the time limit in milliseconds, 0 for none
+		 * @return this builder
+		 */
+		public Builder timeLimit(long timeLimit) {
+			this.timeLimit = timeLimit;
+			return this;
+		}
+
+		/**
+		 * Sets the seed of the random streams of a run. Every island, worker and operator draws
+		 * from a stream split from it.
+		 *
+		 * @param seed the seed, 0 for a new seed every run
+		 * @return this builder
+		 */
+		public Builder seed(long seed) {
+			this.seed = seed;
+			return this;
+		}
+
+		/**
+		 * Sets the selection strategy.
+		 *
+		 * @param selection the selection strategy
+		 * @return this builder
+		 */
+		public Builder selection(GaSelection selection) {
+			this.selection = selection;
+			return this;
+		}
+
+		/**
+		 * Sets the crossover operator.
+		 *
+		 * @param crossover the crossover operator
+		 * @return this builder
+		 */
+		public Builder crossover(GaCrossover crossover) {
+			this.crossover = crossover;
+			return this;
+		}
+
+		/**
+		 * Checks the values and makes the configuration.
+		 *
+		 * @return the configuration
+		 * @throws IllegalArgumentException if a value is out of range
+		 */
+		public GaConfig build() {
+			if (populationSize < 2) {
+				throw new IllegalArgumentException("GaConfig: the population size " + populationSize + " is below 2");
+			}
+			if (!(crossoverRate >= 0.0 && crossoverRate <= 1.0)) {
+				throw new IllegalArgumentException("GaConfig: the crossover rate " + crossoverRate + " is not in [0, 1]");
+			}
+			if (!(mutationRate >= 0.0 && mutationRate <= 1.0)) {
+				throw new IllegalArgumentException("GaConfig: the mutation rate " + mutationRate + " is not in [0, 1]");
+			}
+			if (mutationInterval < 1 || stagnation < 1 || maxGenerations < 0 || timeLimit < 0
+					|| localSearchMoves < 0) {
+				throw new IllegalArgumentException("GaConfig: invalid mutation interval " + mutationInterval
+						+ ", stagnation " + stagnation + ", generation cap " + maxGenerations + ", time limit "
+						+ timeLimit + " or local search moves " + localSearchMoves);
+			}
+			if (eliteCount < 0 || eliteCount >= populationSize) {
+				throw new IllegalArgumentException("GaConfig: the elite count " + eliteCount
+						+ " is not below the population size " + populationSize);
+			}
+			if (selection == null) {
+				throw new IllegalArgumentException("GaConfig: no selection strategy");
+			}
+			if (crossover == null) {
+				throw new IllegalArgumentException("GaConfig: no crossover operator");
+			}
+			return new GaConfig(this);
+		}
+
+	}
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.Arrays;
+
+/**
+ * GaCost computes the monetary cost of a cloudlet to vm allocation from the prices of the
+ * datacenter hosting each vm, as given by its {@link DatacenterCharacteristics}:
+ * <ul>
+ * <li>each cloudlet pays the cost per second of its vm for its etc, and the cost per bw for its
+ * input and output files, as {@link Cloudlet} accounts for it;
+ * <li>each vm used by at least one cloudlet pays the cost per memory for its ram and the cost per
+ * storage for its image size. A vm left without cloudlets costs nothing, since it can be
+ * destroyed.
+ * </ul>
+ * The per cloudlet cost is computed on the fly from per vm rates, like {@link GaImplicitEtc}.
+ */
+public class GaCost {
+
+	/** The expected time to compute of each cloudlet on each vm. */
+	private final GaEtc etc;
+
+	/** The cost per second of each vm. */
+	private final double[] secondRates;
+
+	/** The cost per bw of each vm. */
+	private final double[] transferRates;
+
+	/** The memory and storage cost of each vm, paid if it is used. */
+	private final double[] vmCosts;
+
+	/** The input plus output file size of each cloudlet. */
+	private final double[] transfers;
+
+	/** The scratch vm usage flags. */
+	private final boolean[] used;
+
+	/**
+	 * Creates a new cost function.
+	 *
+	 * @param etc the expected time to compute of each cloudlet on each vm
+	 * @param secondRates the cost per second of each vm
+	 * @param transferRates the cost per bw of each vm
+	 * @param vmCosts the memory and storage cost of each vm
+	 * @param transfers the input plus output file size of each cloudlet
+	 * @pre etc != null
+	 * @post $none
+	 */
+	public GaCost(GaEtc etc, double[] secondRates, double[] transferRates, double[] vmCosts, double[] transfers) {
+		if (secondRates.length != etc.getVmCount() || transferRates.length != etc.getVmCount()
+				|| vmCosts.length != etc.getVmCount() || transfers.length != etc.getCloudletCount()) {
+			throw new IllegalArgumentException("GaCost: the rates do not match the " + etc.getCloudletCount()
+					+ " cloudlets and " + etc.getVmCount() + " vms");
+		}
+		this.etc = etc;
+		this.secondRates = secondRates;
+		this.transferRates = transferRates;
+		this.vmCosts = vmCosts;
+		this.transfers = transfers;
+		used = new boolean[etc.getVmCount()];
+	}
+
+	/**
+	 * Gets the cost of running a cloudlet on a vm, without the cost of the vm itself.
+	 *
+	 * @param cloudlet the cloudlet index
+	 * @param vm the vm index
+	 * @return the cost
+	 */
+	public double get(int cloudlet, int vm) {
+		return secondRates[vm] * etc.get(cloudlet, vm) + transferRates[vm] * transfers[cloudlet];
+	}
+
+	/**
+	 * Computes the cost of a chromosome.
+	 *
+	 * @param population the population
+	 * @param chromosome the chromosome
+	 * @return the cost
+	 */
+	public double cost(GaPopulation population, int chromosome) {
+		int offset = population.offset(chromosome);
+		int geneCount = population.getGeneCount();
+		Arrays.fill(used, false);
+		double total = 0.0;
+		for (int n = 0; n < geneCount; n++) {
+			int vm = population.get(offset + n);
+			total += get(n, vm);
+			used[vm] = true;
+		}
+		return total + vmCosts();
+	}
+
+	/**
+	 * Computes the cost of a chromosome held outside any population.
+	 *
+	 * @param genes the vm index of each cloudlet
+	 * @return the cost
+	 */
+	public double cost(int[] genes) {
+		Arrays.fill(used, false);
+		double total = 0.0;
+		for (int n = 0; n < genes.length; n++) {
+			total += get(n, genes[n]);
+			used[genes[n]] = true;
+		}
+		return total + vmCosts();
+	}
+
+	/**
+	 * Sums the costs of the vms flagged as used.
+	 *
+	 * @return the cost of the used vms
+	 */
+	private double vmCosts() {
+		double total = 0.0;
+		for (int j = 0; j < used.length; j++) {
+			if (used[j]) {
+				total += vmCosts[j];
+			}
+		}
+		return total;
+	}
+
+	/**
+	 * Builds the allocation placing each cloudlet on the vm where it costs the least, which is
+	 * the cheapest end of the trade-off and a useful seed.
+	 *
+	 * @return the allocation
+	 */
+	public int[] cheapest() {
+		int[] genes = new int[etc.getCloudletCount()];
+		for (int n = 0; n < genes.length; n++) {
+			int best = 0;
+			for (int j = 1; j < used.length; j++) {
+				if (get(n, j) < get(n, best)) {
+					best = j;
+				}
+			}
+			genes[n] = best;
+		}
+		return genes;
+	}
+
+}
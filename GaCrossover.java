@@ -0,0 +1,163 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.SplittableRandom;
+
+/**
+ * GaCrossover recombines two parents of a {@link GaEngine} into two offspring, in place in the
+ * population buffer. Each operator keeps the {@link GaLoadTracker} of the population up to date,
+ * gene by gene for a few genes, or by evaluating the offspring again when so many genes move that
+ * it is cheaper:
+ * <ul>
+ * <li>{@link GaBlockCrossover}: the historical operator of the broker, gene n of one parent
+ * against gene n + V of the other;
+ * <li>{@link GaUniformCrossover}: every gene position is exchanged with probability 1/2;
+ * <li>{@link GaPointCrossover}: k cut points, every other segment is exchanged;
+ * <li>{@link GaLoadAwareCrossover}: at every position the first offspring takes the gene whose vm
+ * is the less loaded in its parent.
+ * </ul>
+ * Except for the block operator, genes only move between the same positions of the two parents.
+ * An operator keeps no state between calls, so one instance can serve several islands.
+ */
+public abstract class GaCrossover {
+
+	/**
+	 * Creates an operator from its name, as returned by {@link #getName()}: <code>block</code>,
+	 * <code>uniform</code>, <code>onepoint</code>, <code>twopoint</code> or <code>point:k</code>,
+	 * and <code>load</code>.
+	 *
+	 * @param name the name of the operator
+	 * @return the operator
+	 * @throws IllegalArgumentException if the name is unknown
+	 */
+	public static GaCrossover forName(String name) {
+		String kind = name.trim();
+		String parameter = null;
+		int colon = kind.indexOf(':');
+		if (colon >= 0) {
+			parameter = kind.substring(colon + 1).trim();
+			kind = kind.substring(0, colon).trim();
+		}
+		if (kind.equals("block") && parameter == null) {
+			return new GaBlockCrossover();
+		} else if (kind.equals("uniform") && parameter == null) {
+			return new GaUniformCrossover();
+		} else if (kind.equals("onepoint") && parameter == null) {
+			return new GaPointCrossover(1);
+		} else if (kind.equals("twopoint") && parameter == null) {
+			return new GaPointCrossover(2);
+		} else if (kind.equals("point") && parameter != null) {
+			return new GaPointCrossover(Integer.parseInt(parameter));
+		} else if (kind.equals("load") && parameter == null) {
+			return new GaLoadAwareCrossover();
+		}
+		throw new IllegalArgumentException("GaCrossover: unknown operator " + name);
+	}
+
+	/**
+	 * Recombines two chromosomes of a population in place.
+	 *
+	 * @param population the population
+	 * @param loads the load tracker of the population, or null if the caller does not track the
+	 *            loads and the operator does not need them, see {@link #needsLoads()}
+	 * @param first the first parent, then offspring
+	 * @param second the second parent, then offspring
+	 * @param random the random generator
+	 */
+	public abstract void cross(GaPopulation population, GaLoadTracker loads, int first, int second,
+			SplittableRandom random);
+
+	/**
+	 * Checks whether this operator reads the vm loads of the parents, in which case
+	 * {@link #cross(GaPopulation, GaLoadTracker, int, int, SplittableRandom)} needs a tracker.
+	 *
+	 * @return false, unless overridden
+	 */
+	public boolean needsLoads() {
+		return false;
+	}
+
+	/**
+	 * Gets the name of this operator, which {@link #forName(String)} turns back into an equal
+	 * operator.
+	 *
+	 * @return the name
+	 */
+	public abstract String getName();
+
+	@Override
+	public String toString() {
+		return getName();
+	}
+
+	/**
+	 * Exchanges one gene position between two chromosomes.
+	 *
+	 * @param population the population
+	 * @param loads the load tracker, or null
+	 * @param first the first chromosome
+	 * @param second the second chromosome
+	 * @param gene the gene
+	 */
+	static void swapGene(GaPopulation population, GaLoadTracker loads, int first, int second, int gene) {
+		int vm = population.getGene(first, gene);
+		int other = population.getGene(second, gene);
+		if (vm == other) {
+			return;
+		}
+		if (loads == null) {
+			population.setGene(first, gene, other);
+			population.setGene(second, gene, vm);
+		} else {
+			loads.setGene(population, first, gene, other);
+			loads.setGene(population, second, gene, vm);
+		}
+	}
+
+	/**
+	 * Exchanges a range of gene positions between two chromosomes. A long range is swapped in
+	 * bulk and both chromosomes are evaluated again, as that costs O(C + V) against O(log V) per
+	 * gene.
+	 *
+	 * @param population the population
+	 * @param loads the load tracker, or null
+	 * @param first the first chromosome
+	 * @param second the second chromosome
+	 * @param from the first gene of the range
+	 * @param to the gene after the last one of the range
+	 */
+	static void swapRange(GaPopulation population, GaLoadTracker loads, int first, int second, int from, int to) {
+		if (loads != null && !isBulk(population, to - from)) {
+			for (int n = from; n < to; n++) {
+				swapGene(population, loads, first, second, n);
+			}
+			return;
+		}
+		population.swapRange(first, second, from, to);
+		if (loads != null) {
+			loads.evaluate(population, first);
+			loads.evaluate(population, second);
+		}
+	}
+
+	/**
+	 * Checks whether moving a number of genes is cheaper by evaluating both chromosomes again
+	 * than by updating their loads gene by gene.
+	 *
+	 * @param population the population
+	 * @param genes the number of genes moved
+	 * @return true to evaluate again
+	 */
+	static boolean isBulk(GaPopulation population, int genes) {
+		int depth = 32 - Integer.numberOfLeadingZeros(population.getVmCount());
+		return (long) genes * 2 * depth > population.getGeneCount() + population.getVmCount();
+	}
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation
+ *               of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009, The University of Melbourne, Australia
+ */
+
+
+package org.cloudbus.cloudsim.examples;
+
+import java.util.SplittableRandom;
+
+import org.cloudbus.cloudsim.GaConfig;
+import org.cloudbus.cloudsim.GaCrossover;
+import org.cloudbus.cloudsim.GaEngine;
+import org.cloudbus.cloudsim.GaEtc;
+import org.cloudbus.cloudsim.GaFitness;
+import org.cloudbus.cloudsim.GaLoadTracker;
+import org.cloudbus.cloudsim.GaPopulation;
+
+/**
+ * A benchmark of the crossover operators of the broker's genetic algorithm,
+ * for throughput (crossovers per second, load tracker included) and for
+ * solution quality (the best makespan of full runs, averaged over seeds).
+ *
+ * Usage: GaCrossoverBenchmark [cloudlets] [vms] [runs] [storage]
+ */
+public class GaCrossoverBenchmark {
+
+	/** The operators compared. */
+	private static final String[] OPERATORS = { "block", "uniform", "onepoint", "twopoint", "load" };
+
+	/** The number of crossovers timed per operator. */
+	private static final int CROSSOVERS = 2000;
+
+	/** The generations without improvement ending a quality run. */
+	private static final int STAGNATION = 20;
+
+	/**
+	 * Creates main() to run this benchmark
+	 */
+	public static void main(String[] args) {
+		int cloudlets = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+		int vms = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+		int runs = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+		int storage = args.length > 3 ? Integer.parseInt(args[3]) : GaPopulation.HEAP;
+
+		//same workload shape as CloudSimExample6
+		double[] lengths = new double[cloudlets];
+		for(int i=0;i<cloudlets;i++)
+			lengths[i]=1000+(2*i*10);
+		double[] mips = new double[vms];
+		for(int j=0;j<vms;j++)
+			mips[j]=1000+(2*j*10);
+		GaFitness fitness = new GaFitness(GaEtc.create(lengths, mips));
+
+		System.out.println("GaCrossoverBenchmark: "+cloudlets+" cloudlets, "+vms+" vms, "+runs+" runs, storage "+storage);
+		System.out.println("operator   crossovers/s   mean makespan   mean generations");
+		for(String name : OPERATORS)
+		{
+			GaCrossover crossover = GaCrossover.forName(name);
+			double rate = throughput(crossover, fitness, cloudlets, vms, storage);
+
+			GaConfig config = GaConfig.builder().crossover(crossover).stagnation(STAGNATION).build();
+			double makespan = 0;
+			double generations = 0;
+			for(int run=0;run<runs;run++)
+			{
+				GaEngine engine = new GaEngine(fitness, config, cloudlets, vms, new SplittableRandom(run), storage);
+				engine.initialize(new int[0][], false);
+				engine.run();
+				makespan += engine.getBestMakespan();
+				generations += engine.getGenerations();
+				engine.release();
+			}
+			System.out.println(String.format("%-10s %12.0f   %13.3f   %16.1f", name, rate, makespan/runs, generations/runs));
+		}
+	}
+
+	/**
+	 * Times an operator on random pairs of a random population, keeping the loads up to date.
+	 */
+	private static double throughput(GaCrossover crossover, GaFitness fitness, int cloudlets, int vms, int storage) {
+		int size = 20;
+		SplittableRandom rand = new SplittableRandom(1);
+		GaPopulation population = GaPopulation.create(size, cloudlets, vms, storage);
+		for(int m=0;m<size;m++)
+		{
+			for(int n=0;n<cloudlets;n++)
+			{
+				population.setGene(m, n, rand.nextInt(vms));
+			}
+		}
+		GaLoadTracker loads = new GaLoadTracker(fitness, size, vms);
+		loads.evaluateAll(population);
+
+		//warm up, then time
+		long elapsed = 0;
+		for(int round=0;round<2;round++)
+		{
+			long start = System.nanoTime();
+			for(int k=0;k<CROSSOVERS;k++)
+			{
+				int m = 2*rand.nextInt(size/2);
+				crossover.cross(population, loads, m, m+1, rand);
+			}
+			elapsed = System.nanoTime()-start;
+		}
+		population.release();
+		return CROSSOVERS/(elapsed/1e9);
+	}
+}
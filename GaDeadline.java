@@ -0,0 +1,82 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+/**
+ * GaDeadline is the wall-clock instant at which an anytime run of the genetic algorithm must
+ * stop and hand over the best allocation found so far. It reads {@link System#nanoTime()}, so a
+ * check is cheap enough to be made between generations and between evaluation chunks.
+ */
+public final class GaDeadline {
+
+	/** The deadline that never expires. */
+	public static final GaDeadline NONE = new GaDeadline(0L, false);
+
+	/** The {@link System#nanoTime()} value at which the deadline expires. */
+	private final long expiry;
+
+	/** Whether there is a deadline at all. */
+	private final boolean bounded;
+
+	/**
+	 * Creates a deadline.
+	 *
+	 * @param expiry the {@link System#nanoTime()} value at which it expires
+	 * @param bounded whether it expires at all
+	 */
+	private GaDeadline(long expiry, boolean bounded) {
+		this.expiry = expiry;
+		this.bounded = bounded;
+	}
+
+	/**
+	 * Creates a deadline some time from now.
+	 *
+	 * @param millis the time limit in milliseconds, 0 for none
+	 * @return the deadline
+	 * @pre millis >= 0
+	 */
+	public static GaDeadline after(long millis) {
+		if (millis <= 0) {
+			return NONE;
+		}
+		return new GaDeadline(System.nanoTime() + millis * 1000000L, true);
+	}
+
+	/**
+	 * Checks whether the deadline has passed.
+	 *
+	 * @return true if the run must stop
+	 */
+	public boolean isExpired() {
+		return bounded && System.nanoTime() - expiry >= 0;
+	}
+
+	/**
+	 * Checks whether there is a deadline.
+	 *
+	 * @return true unless this is {@link #NONE}
+	 */
+	public boolean isBounded() {
+		return bounded;
+	}
+
+	/**
+	 * Gets the time left before the deadline.
+	 *
+	 * @return the milliseconds left, 0 once expired, or {@link Long#MAX_VALUE} without a deadline
+	 */
+	public long remainingMillis() {
+		if (!bounded) {
+			return Long.MAX_VALUE;
+		}
+		return Math.max(0L, (expiry - System.nanoTime()) / 1000000L);
+	}
+
+}
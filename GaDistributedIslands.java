@@ -0,0 +1,373 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GaDistributedIslands runs the islands of the genetic algorithm in separate {@link GaWorker}
+ * processes on the local host, for batches too large for one JVM. The coordinator listens on an
+ * ephemeral loopback port, starts one worker per island with the same class path, and sends each
+ * one the problem as a {@link GaWire} message.
+ * <p>
+ * The islands form a ring: each migrant a worker sends is forwarded to the next worker. When all
+ * the workers have sent their result, the coordinator keeps the best chromosome, closes the
+ * connections and waits for the processes to exit. A worker silent for longer than the read
+ * timeout is taken as hung: the run fails and the worker is killed, rather than hanging the
+ * simulation.
+ * <p>
+ * With a {@link GaDeadline}, the coordinator stops waiting when it passes: the best chromosome is
+ * then the best of the results and migrants received so far, or the best seed, and the workers
+ * still running are killed.
+ */
+public class GaDistributedIslands {
+
+	/** How long to wait for the workers to connect, in milliseconds. */
+	private static final int ACCEPT_TIMEOUT = 60000;
+
+	/** How long a worker may stay silent, between two migrants or before its result, in milliseconds. */
+	private static final int READ_TIMEOUT = 600000;
+
+	/** How long to wait for a worker to exit once its connection is closed, in milliseconds. */
+	private static final long EXIT_TIMEOUT = 10000;
+
+	/** The length of each cloudlet. */
+	private final double[] lengths;
+
+	/** The mips of each vm. */
+	private final double[] mips;
+
+	/** The number of islands, i.e. worker processes. */
+	private final int islandCount;
+
+	/** The parameters of the algorithm, sent to every island. */
+	private final GaConfig config;
+
+	/** The number of generations between two migrations. */
+	private final int migrationInterval;
+
+	/** The random generator seeding the generator of each island. */
+	private final SplittableRandom random;
+
+	/** The deadline of an anytime run. */
+	private GaDeadline deadline = GaDeadline.NONE;
+
+	/** The connections to the workers, in ring order. */
+	private final List<Link> links;
+
+	/** The best chromosome found by all the islands. */
+	private int[] best;
+
+	/** The makespan of the best chromosome. */
+	private double bestMakespan;
+
+	/** The number of generations evolved by all the islands together. */
+	private int generations;
+
+	/**
+	 * Creates a new coordinator.
+	 *
+	 * @param lengths the length of each cloudlet
+	 * @param mips the mips of each vm
+	 * @param config the parameters of the algorithm, sent to every island
+	 * @param islandCount the number of worker processes
+	 * @param migrationInterval the number of generations between two migrations
+	 * @param random the random generator seeding the generator of each island
+	 * @pre islandCount > 0
+	 * @pre migrationInterval > 0
+	 * @post $none
+	 */
+	public GaDistributedIslands(double[] lengths, double[] mips, GaConfig config, int islandCount,
+			int migrationInterval, SplittableRandom random) {
+		if (islandCount <= 0 || migrationInterval <= 0) {
+			throw new IllegalArgumentException("GaDistributedIslands: invalid " + islandCount
+					+ " islands, migration every " + migrationInterval + " generations");
+		}
+		this.lengths = lengths;
+		this.mips = mips;
+		this.islandCount = islandCount;
+		this.config = config;
+		this.migrationInterval = migrationInterval;
+		this.random = random;
+		links = new ArrayList<Link>();
+		bestMakespan = Double.MAX_VALUE;
+	}
+
+	/**
+	 * Starts the workers, relays the migrants until every worker has sent its result or the
+	 * deadline passes, and keeps the best chromosome.
+	 *
+	 * @param seeds the seed chromosomes given to every island
+	 */
+	public void run(int[][] seeds) {
+		GaFitness fitness = new GaFitness(GaEtc.create(lengths, mips));
+		for (int[] seed : seeds) {
+			double makespan = fitness.makespan(seed);
+			if (makespan < bestMakespan) {
+				bestMakespan = makespan;
+				best = seed.clone();
+			}
+		}
+
+		List<Process> processes = new ArrayList<Process>();
+		ServerSocket server = null;
+		try {
+			server = new ServerSocket(0, islandCount, InetAddress.getLoopbackAddress());
+			String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+			for (int i = 0; i < islandCount; i++) {
+				ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+						GaWorker.class.getName(), String.valueOf(server.getLocalPort()));
+				builder.redirectOutput(ProcessBuilder.Redirect.INHERIT);
+				builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+				processes.add(builder.start());
+			}
+			for (int i = 0; i < islandCount; i++) {
+				server.setSoTimeout((int) Math.max(1L, Math.min(ACCEPT_TIMEOUT, deadline.remainingMillis())));
+				try {
+					links.add(new Link(i, server.accept()));
+				} catch (SocketTimeoutException e) {
+					if (!deadline.isExpired()) {
+						throw e;
+					}
+					// out of time, the ring is made of the workers connected so far
+					break;
+				}
+			}
+			for (Link link : links) {
+				// the workers stop a tenth early, so their results come back before the deadline
+				long timeLeft = deadline.isBounded() ? Math.max(1L, deadline.remainingMillis() * 9 / 10) : 0L;
+				GaWire.writeProblem(link.out, lengths, mips, config, migrationInterval, random.nextLong(), timeLeft,
+						seeds);
+			}
+			for (Link link : links) {
+				link.start();
+			}
+			for (Link link : links) {
+				if (deadline.isBounded()) {
+					link.join(Math.max(1L, deadline.remainingMillis()));
+				} else {
+					link.join();
+				}
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException("GaDistributedIslands: " + e.getMessage(), e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("GaDistributedIslands: interrupted", e);
+		} finally {
+			for (Link link : links) {
+				link.close();
+			}
+			if (server != null) {
+				try {
+					server.close();
+				} catch (IOException e) {
+					// nothing left to release
+				}
+			}
+			for (Process process : processes) {
+				if (deadline.isExpired()) {
+					process.destroy();
+				}
+				try {
+					if (!process.waitFor(EXIT_TIMEOUT, TimeUnit.MILLISECONDS)) {
+						process.destroy();
+						process.waitFor();
+					}
+				} catch (InterruptedException e) {
+					process.destroy();
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+
+		for (Link link : links) {
+			// the thread ends as soon as its connection is closed
+			try {
+				link.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("GaDistributedIslands: interrupted", e);
+			}
+			// a worker that failed before its result is an error, unless the run was cut short
+			if (link.failure != null && !deadline.isExpired()) {
+				throw new IllegalStateException("GaDistributedIslands: " + link.failure.getMessage(), link.failure);
+			}
+			generations += link.generations;
+			if (link.makespan < bestMakespan) {
+				bestMakespan = link.makespan;
+				best = link.genes;
+			}
+		}
+	}
+
+	/**
+	 * Sets the deadline of an anytime run.
+	 *
+	 * @param deadline the deadline
+	 * @pre deadline != null
+	 */
+	public void setDeadline(GaDeadline deadline) {
+		this.deadline = deadline;
+	}
+
+	/**
+	 * Gets the best chromosome found by all the islands.
+	 *
+	 * @return the best chromosome, or null before {@link #run(int[][])}
+	 */
+	public int[] getBest() {
+		return best;
+	}
+
+	/**
+	 * Gets the makespan of the best chromosome found by all the islands.
+	 *
+	 * @return the best makespan
+	 */
+	public double getBestMakespan() {
+		return bestMakespan;
+	}
+
+	/**
+	 * Gets the number of generations evolved by all the islands together.
+	 *
+	 * @return the generations
+	 */
+	public int getGenerations() {
+		return generations;
+	}
+
+	/**
+	 * Link is the connection to one worker. Its thread reads the messages of the worker,
+	 * forwarding the migrants to the next worker of the ring, until the result arrives.
+	 */
+	private class Link extends Thread {
+
+		private final int index;
+
+		private final Socket socket;
+
+		private final DataInputStream in;
+
+		private final DataOutputStream out;
+
+		private volatile boolean done;
+
+		private volatile boolean closed;
+
+		private int[] genes;
+
+		private double makespan = Double.MAX_VALUE;
+
+		private int generations;
+
+		private IOException failure;
+
+		Link(int index, Socket socket) throws IOException {
+			super("GaDistributedIslands-" + index);
+			setDaemon(true);
+			this.index = index;
+			this.socket = socket;
+			socket.setTcpNoDelay(true);
+			socket.setSoTimeout(READ_TIMEOUT);
+			in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+		}
+
+		@Override
+		public void run() {
+			int vmCount = mips.length;
+			Link next = links.get((index + 1) % links.size());
+			try {
+				while (true) {
+					byte tag = in.readByte();
+					if (tag == GaWire.MIGRANT) {
+						double migrantMakespan = in.readDouble();
+						int[] migrant = new int[lengths.length];
+						GaWire.readGenes(in, migrant, vmCount);
+						if (migrantMakespan < makespan) {
+							// the best so far, in case the deadline comes before the result
+							makespan = migrantMakespan;
+							genes = migrant;
+						}
+						if (next != this) {
+							next.forward(migrant, migrantMakespan);
+						}
+					} else if (tag == GaWire.RESULT) {
+						generations = in.readInt();
+						makespan = in.readDouble();
+						genes = new int[lengths.length];
+						GaWire.readGenes(in, genes, vmCount);
+						done = true;
+						return;
+					} else {
+						throw new IOException("unexpected message " + tag + " from worker " + index);
+					}
+				}
+			} catch (IOException e) {
+				// closing the connection ends the read, that is no failure of the worker
+				if (!closed) {
+					failure = e;
+				}
+			}
+		}
+
+		/**
+		 * Sends a migrant to this worker, unless it has already finished.
+		 *
+		 * @param migrant the chromosome
+		 * @param migrantMakespan its makespan
+		 */
+		void forward(int[] migrant, double migrantMakespan) {
+			synchronized (out) {
+				if (done) {
+					return;
+				}
+				try {
+					out.writeByte(GaWire.MIGRANT);
+					GaWire.writeChromosome(out, migrant, migrantMakespan, mips.length);
+					out.flush();
+				} catch (IOException e) {
+					// the worker is finishing, the migrant is not needed any more
+				}
+			}
+		}
+
+		/**
+		 * Closes the connection, which lets the worker exit.
+		 */
+		void close() {
+			synchronized (out) {
+				done = true;
+				closed = true;
+				try {
+					socket.close();
+				} catch (IOException e) {
+					// nothing left to release
+				}
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+/**
+ * GaEliteArchive finds the k chromosomes of a population with the lowest makespans, which the
+ * {@link GaEngine} carries unchanged into the next generation. It only records chromosome
+ * indexes, so no chromosome is copied to find them.
+ * <p>
+ * The elites are kept in a bounded heap whose root is the worst of them: a chromosome enters
+ * only if it beats the root, which it then replaces. Finding the elites costs O(P log k).
+ */
+public class GaEliteArchive {
+
+	/** The heap of elite chromosome indexes, the highest makespan at the root. */
+	private final int[] heap;
+
+	/** The number of elites in the heap. */
+	private int size;
+
+	/** The makespans the heap is ordered by. */
+	private double[] makespans;
+
+	/**
+	 * Creates a new archive.
+	 *
+	 * @param capacity the number of elites kept
+	 * @pre capacity >= 0
+	 * @post $none
+	 */
+	public GaEliteArchive(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("GaEliteArchive: invalid capacity " + capacity);
+		}
+		heap = new int[capacity];
+	}
+
+	/**
+	 * Finds the elites of a population.
+	 *
+	 * @param makespans the makespans of the population
+	 */
+	public void update(double[] makespans) {
+		this.makespans = makespans;
+		size = 0;
+		if (heap.length == 0) {
+			return;
+		}
+		for (int m = 0; m < makespans.length; m++) {
+			if (size < heap.length) {
+				heap[size] = m;
+				siftUp(size++);
+			} else if (makespans[m] < makespans[heap[0]]) {
+				heap[0] = m;
+				siftDown(0);
+			}
+		}
+	}
+
+	/**
+	 * Moves an entry up to its place in the heap.
+	 *
+	 * @param i the position of the entry
+	 */
+	private void siftUp(int i) {
+		int entry = heap[i];
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (makespans[heap[parent]] >= makespans[entry]) {
+				break;
+			}
+			heap[i] = heap[parent];
+			i = parent;
+		}
+		heap[i] = entry;
+	}
+
+	/**
+	 * Moves an entry down to its place in the heap.
+	 *
+	 * @param i the position of the entry
+	 */
+	private void siftDown(int i) {
+		int entry = heap[i];
+		while (true) {
+			int child = 2 * i + 1;
+			if (child >= size) {
+				break;
+			}
+			if (child + 1 < size && makespans[heap[child + 1]] > makespans[heap[child]]) {
+				child++;
+			}
+			if (makespans[heap[child]] <= makespans[entry]) {
+				break;
+			}
+			heap[i] = heap[child];
+			i = child;
+		}
+		heap[i] = entry;
+	}
+
+	/**
+	 * Gets the number of elites found by the last update.
+	 *
+	 * @return the number of elites, at most the capacity
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets an elite, in no particular order.
+	 *
+	 * @param i the position of the elite, below {@link #size()}
+	 * @return the chromosome index
+	 */
+	public int get(int i) {
+		return heap[i];
+	}
+
+	/**
+	 * Gets the number of elites kept.
+	 *
+	 * @return the capacity
+	 */
+	public int getCapacity() {
+		return heap.length;
+	}
+
+}
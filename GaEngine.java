@@ -0,0 +1,487 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.SplittableRandom;
+
+/**
+ * GaEngine evolves one population of cloudlet to vm allocations, as done by the
+ * {@link DatacenterBroker} before dispatching the cloudlets. Every generation parents are picked
+ * by the {@link GaSelection} strategy, pairs of parents are recombined by the {@link GaCrossover}
+ * operator and, every few generations, one gene of each chromosome is set to a random vm (mutation). The
+ * offspring replace the parents, except for the elites: the best chromosomes, found by a
+ * {@link GaEliteArchive}, which go to the next generation unchanged. When the memetic stage is
+ * on, the best offspring is then refined by a {@link GaLocalSearch}.
+ * <p>
+ * The run stops when a number of generations in a row have not improved on the best makespan
+ * found so far, or at the generation cap. The best chromosome ever seen is kept apart, so it
+ * survives even if crossover or mutation destroy it in the population. All these parameters come
+ * from a {@link GaConfig}.
+ * <p>
+ * In anytime mode the engine is given a {@link GaDeadline}: {@link #run()} stops at the first
+ * generation boundary past it, and the initial population stops being drawn and evaluated. The seeds are
+ * evaluated first, so the best chromosome is never worse than the best seed.
+ */
+public class GaEngine {
+
+	/** The parameters of the algorithm. */
+	private final GaConfig config;
+
+	/** The fitness function. */
+	private final GaFitness fitness;
+
+	/** The random generator of the stochastic operators. */
+	private final SplittableRandom random;
+
+	/** The current population. */
+	private GaPopulation current;
+
+	/** The population the offspring are built in. */
+	private GaPopulation next;
+
+	/** The vm loads of the current population. */
+	private GaLoadTracker currentLoads;
+
+	/** The vm loads of the offspring. */
+	private GaLoadTracker nextLoads;
+
+	/** The makespans of the current population. */
+	private final double[] makespans;
+
+	/** The chromosomes selected as parents, one per offspring. */
+	private final int[] select;
+
+	/** The best chromosomes of the current population, carried over unchanged. */
+	private final GaEliteArchive elites;
+
+	/** The best chromosome found so far. */
+	private final int[] best;
+
+	/** The makespan of the best chromosome found so far. */
+	private double bestMakespan;
+
+	/** The number of generations evolved. */
+	private int generations;
+
+	/** The number of generations since the last mutation. */
+	private int sinceMutation;
+
+	/** The number of generations in a row that did not improve on the best so far. */
+	private int sameCount;
+
+	/** The hill climbing refining the best offspring, or null if the memetic stage is off. */
+	private final GaLocalSearch localSearch;
+
+	/** The deadline of an anytime run. */
+	private GaDeadline deadline = GaDeadline.NONE;
+
+	/** The trace of the run. */
+	private GaTrace trace = GaTrace.DISABLED;
+
+	/** The name of this engine in the trace. */
+	private String label = "ga";
+
+	/**
+	 * Creates a new engine with its populations on the heap.
+	 *
+	 * @param fitness the fitness function
+	 * @param config the parameters of the algorithm
+	 * @param cloudletCount the number of cloudlets
+	 * @param vmCount the number of vms
+	 * @param random the random generator
+	 * @pre fitness != null
+	 * @pre config != null
+	 * @pre vmCount > 0
+	 * @pre random != null
+	 * @post $none
+	 */
+	public GaEngine(GaFitness fitness, GaConfig config, int cloudletCount, int vmCount, SplittableRandom random) {
+		this(fitness, config, cloudletCount, vmCount, random, GaPopulation.HEAP);
+	}
+
+	/**
+	 * Creates a new engine with the given population storage. Unless the populations are on the
+	 * heap, the engine must be released with {@link #release()} when the run is over.
+	 *
+	 * @param fitness the fitness function
+	 * @param config the parameters of the algorithm
+	 * @param cloudletCount the number of cloudlets
+	 * @param vmCount the number of vms
+	 * @param random the random generator
+	 * @param storage the population storage, see {@link GaPopulation#create(int, int, int, int)}
+	 * @pre fitness != null
+	 * @pre config != null
+	 * @pre vmCount > 0
+	 * @pre random != null
+	 * @post $none
+	 */
+	public GaEngine(GaFitness fitness, GaConfig config, int cloudletCount, int vmCount, SplittableRandom random,
+			int storage) {
+		this.fitness = fitness;
+		this.config = config;
+		this.random = random;
+		int size = config.getPopulationSize();
+		current = GaPopulation.create(size, cloudletCount, vmCount, storage);
+		next = GaPopulation.create(size, cloudletCount, vmCount, storage);
+		currentLoads = new GaLoadTracker(fitness, size, vmCount);
+		nextLoads = new GaLoadTracker(fitness, size, vmCount);
+		makespans = new double[size];
+		elites = new GaEliteArchive(config.getEliteCount());
+		select = new int[size - config.getEliteCount()];
+		localSearch = config.getLocalSearchMoves() > 0 ? new GaLocalSearch(fitness, cloudletCount, vmCount) : null;
+		best = new int[cloudletCount];
+		bestMakespan = Double.MAX_VALUE;
+	}
+
+	/**
+	 * Creates the initial population: the seeds are placed in the last chromosomes and the other
+	 * chromosomes are random.
+	 *
+	 * @param seeds the seed chromosomes, at most the population size
+	 * @param parallel whether to evaluate the population on the ForkJoin common pool
+	 */
+	public void initialize(int[][] seeds, boolean parallel) {
+		int size = current.size();
+		int randomCount = Math.max(0, size - seeds.length);
+		for (int m = 0; m < randomCount && !deadline.isExpired(); m++) {
+			for (int n = 0; n < current.getGeneCount(); n++) {
+				current.setGene(m, n, random.nextInt(current.getVmCount()));
+			}
+		}
+		for (int s = 0; randomCount + s < size; s++) {
+			current.setChromosome(randomCount + s, seeds[s]);
+		}
+		// the seeds first, so a deadline always leaves an allocation to use
+		currentLoads.evaluate(current, randomCount, size, false, GaDeadline.NONE);
+		currentLoads.evaluate(current, 0, randomCount, parallel, deadline);
+		currentLoads.makespans(makespans);
+		if (trace.isEnabled(GaTrace.DETAIL)) {
+			trace("INITIAL POPULATION", current);
+			traceMakespans();
+		}
+		updateBest();
+		if (trace.isEnabled(GaTrace.SUMMARY)) {
+			traceSummary();
+		}
+	}
+
+	/**
+	 * Evolves generations until the run converges or the deadline passes.
+	 */
+	public void run() {
+		while (!isConverged() && !deadline.isExpired()) {
+			generation();
+		}
+	}
+
+	/**
+	 * Evolves one generation.
+	 */
+	public void generation() {
+		int size = current.size();
+		int cloudletCount = current.getGeneCount();
+		int vmCount = current.getVmCount();
+
+		// ELITISM
+		elites.update(makespans);
+		int eliteCount = elites.size();
+		for (int i = 0; i < eliteCount; i++) {
+			next.copyChromosome(current, elites.get(i), i);
+			nextLoads.copyChromosome(currentLoads, elites.get(i), i);
+		}
+
+		// SELECTION
+		config.getSelection().select(makespans, random, select);
+		for (int i = 0; i < select.length; i++) {
+			next.copyChromosome(current, select[i], eliteCount + i);
+			nextLoads.copyChromosome(currentLoads, select[i], eliteCount + i);
+		}
+		if (trace.isEnabled(GaTrace.DETAIL)) {
+			StringBuilder line = new StringBuilder(label).append(" elites");
+			for (int i = 0; i < eliteCount; i++) {
+				line.append(' ').append(elites.get(i));
+			}
+			line.append(", selected");
+			for (int i = 0; i < select.length; i++) {
+				line.append(' ').append(select[i]);
+			}
+			trace.log(line.toString());
+			trace("NEXT POPULATION", next);
+		}
+
+		// CROSSOVER
+		double crossoverRate = config.getCrossoverRate();
+		GaCrossover crossover = config.getCrossover();
+		for (int m = eliteCount; m + 1 < size; m += 2) {
+			if (crossoverRate < 1.0 && random.nextDouble() >= crossoverRate) {
+				continue;
+			}
+			crossover.cross(next, nextLoads, m, m + 1, random);
+		}
+		if (trace.isEnabled(GaTrace.DETAIL)) {
+			trace("AFTER CROSSOVER", next);
+		}
+
+		// MUTATION
+		generations++;
+		sinceMutation++;
+		if (sinceMutation >= config.getMutationInterval() && cloudletCount > 0) {
+			sinceMutation = 0;
+			double mutationRate = config.getMutationRate();
+			for (int m = eliteCount; m < size; m++) {
+				if (mutationRate < 1.0 && random.nextDouble() >= mutationRate) {
+					continue;
+				}
+				nextLoads.setGene(next, m, random.nextInt(cloudletCount), random.nextInt(vmCount));
+			}
+			if (trace.isEnabled(GaTrace.DETAIL)) {
+				trace("AFTER MUTATION", next);
+			}
+		}
+
+		// the offspring replace the parents
+		GaPopulation population = current;
+		current = next;
+		next = population;
+		GaLoadTracker loads = currentLoads;
+		currentLoads = nextLoads;
+		nextLoads = loads;
+		currentLoads.makespans(makespans);
+
+		// LOCAL SEARCH
+		if (localSearch != null) {
+			int min = 0;
+			for (int m = 1; m < size; m++) {
+				if (makespans[m] < makespans[min]) {
+					min = m;
+				}
+			}
+			localSearch.refine(current, currentLoads, min, config.getLocalSearchMoves(), deadline);
+			makespans[min] = currentLoads.makespan(min);
+		}
+		if (trace.isEnabled(GaTrace.DETAIL)) {
+			traceMakespans();
+		}
+		updateBest();
+		if (trace.isEnabled(GaTrace.SUMMARY)) {
+			traceSummary();
+		}
+	}
+
+	/**
+	 * Replaces the worst chromosome of the population by a chromosome coming from elsewhere,
+	 * e.g. another island, if the newcomer is better.
+	 *
+	 * @param genes the chromosome
+	 * @param makespan the makespan of the chromosome
+	 */
+	public void immigrate(int[] genes, double makespan) {
+		int worst = 0;
+		for (int m = 1; m < makespans.length; m++) {
+			if (makespans[m] > makespans[worst]) {
+				worst = m;
+			}
+		}
+		if (makespan >= makespans[worst]) {
+			return;
+		}
+		current.setChromosome(worst, genes);
+		currentLoads.evaluate(current, worst);
+		makespans[worst] = currentLoads.makespan(worst);
+		if (makespans[worst] < bestMakespan) {
+			bestMakespan = makespans[worst];
+			current.getChromosome(worst, best);
+			sameCount = 0;
+		}
+	}
+
+	/**
+	 * Releases the populations. Only {@link #getBest()} and the other results can be used
+	 * afterwards.
+	 */
+	public void release() {
+		current.release();
+		next.release();
+	}
+
+	/**
+	 * Records the best chromosome of the population if it beats the best so far, and counts the
+	 * generations that do not.
+	 */
+	private void updateBest() {
+		int min = 0;
+		for (int m = 1; m < makespans.length; m++) {
+			if (makespans[m] < makespans[min]) {
+				min = m;
+			}
+		}
+		if (makespans[min] < bestMakespan) {
+			bestMakespan = makespans[min];
+			current.getChromosome(min, best);
+			sameCount = 0;
+		} else {
+			sameCount++;
+		}
+	}
+
+	/**
+	 * Traces a population, one chromosome per line.
+	 *
+	 * @param title the title
+	 * @param population the population
+	 */
+	private void trace(String title, GaPopulation population) {
+		trace.log(label + " " + title);
+		for (int m = 0; m < population.size(); m++) {
+			StringBuilder line = new StringBuilder().append(m).append(" -");
+			for (int n = 0; n < population.getGeneCount(); n++) {
+				line.append(' ').append(population.getGene(m, n));
+			}
+			trace.log(line.toString());
+		}
+	}
+
+	/**
+	 * Traces the makespans of the current population on one line.
+	 */
+	private void traceMakespans() {
+		StringBuilder line = new StringBuilder(label).append(" makespans");
+		for (double makespan : makespans) {
+			line.append(' ').append(makespan);
+		}
+		trace.log(line.toString());
+	}
+
+	/**
+	 * Traces the summary of the current generation: the best, mean and worst makespan, the
+	 * diversity, i.e. the share of genes in which the chromosomes differ from the best one of the
+	 * population, and the best makespan so far.
+	 */
+	private void traceSummary() {
+		int first = 0;
+		double sum = 0.0;
+		double worst = 0.0;
+		int finite = 0;
+		for (int m = 0; m < makespans.length; m++) {
+			if (makespans[m] < makespans[first]) {
+				first = m;
+			}
+			if (!Double.isInfinite(makespans[m])) {
+				sum += makespans[m];
+				worst = Math.max(worst, makespans[m]);
+				finite++;
+			}
+		}
+		long differing = 0;
+		int cloudletCount = current.getGeneCount();
+		for (int m = 0; m < current.size(); m++) {
+			if (m == first) {
+				continue;
+			}
+			for (int n = 0; n < cloudletCount; n++) {
+				if (current.getGene(m, n) != current.getGene(first, n)) {
+					differing++;
+				}
+			}
+		}
+		double diversity = current.size() > 1 && cloudletCount > 0
+				? (double) differing / ((long) (current.size() - 1) * cloudletCount) : 0.0;
+		trace.log(String.format("%s generation %d best %.4f mean %.4f worst %.4f diversity %.4f best so far %.4f",
+				label, generations, makespans[first], finite > 0 ? sum / finite : 0.0, worst, diversity, bestMakespan));
+	}
+
+	/**
+	 * Checks whether the run has converged.
+	 *
+	 * @return true if the best makespan has not improved for the last generations, or the
+	 *         generation cap is reached
+	 */
+	public boolean isConverged() {
+		int maxGenerations = config.getMaxGenerations();
+		return sameCount >= config.getStagnation() || maxGenerations > 0 && generations >= maxGenerations;
+	}
+
+	/**
+	 * Gets the best chromosome found so far. The array is owned by the engine.
+	 *
+	 * @return the best chromosome
+	 */
+	public int[] getBest() {
+		return best;
+	}
+
+	/**
+	 * Gets the makespan of the best chromosome found so far.
+	 *
+	 * @return the best makespan
+	 */
+	public double getBestMakespan() {
+		return bestMakespan;
+	}
+
+	/**
+	 * Gets the number of generations evolved.
+	 *
+	 * @return the generations
+	 */
+	public int getGenerations() {
+		return generations;
+	}
+
+	/**
+	 * Gets the fitness function.
+	 *
+	 * @return the fitness function
+	 */
+	public GaFitness getFitness() {
+		return fitness;
+	}
+
+	/**
+	 * Gets the deadline of an anytime run.
+	 *
+	 * @return the deadline, {@link GaDeadline#NONE} by default
+	 */
+	public GaDeadline getDeadline() {
+		return deadline;
+	}
+
+	/**
+	 * Sets the deadline of an anytime run. It must be set before {@link #initialize(int[][], boolean)}
+	 * to bound the initial evaluation too.
+	 *
+	 * @param deadline the deadline
+	 * @pre deadline != null
+	 */
+	public void setDeadline(GaDeadline deadline) {
+		this.deadline = deadline;
+	}
+
+	/**
+	 * Gets the parameters of the algorithm.
+	 *
+	 * @return the configuration
+	 */
+	public GaConfig getConfig() {
+		return config;
+	}
+
+	/**
+	 * Sets the trace of the run.
+	 *
+	 * @param trace the trace, {@link GaTrace#DISABLED} by default
+	 * @param label the name of this engine in the trace lines
+	 * @pre trace != null
+	 */
+	public void setTrace(GaTrace trace, String label) {
+		this.trace = trace;
+		this.label = label;
+	}
+
+}
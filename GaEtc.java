@@ -0,0 +1,75 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+/**
+ * GaEtc gives the expected time to compute (etc) of each cloudlet on each vm, which is what the
+ * genetic algorithm of the {@link DatacenterBroker} adds up into vm loads.
+ * <p>
+ * When the etc of a cloudlet is its length divided by the mips of the vm, the matrix is rank-1
+ * and {@link GaImplicitEtc} computes its entries from the two vectors, which is faster than
+ * reading a materialized matrix once it no longer fits in the caches. Other cost models can
+ * subclass GaEtc and be passed to {@link #materialize(GaEtc, long)}, which stores every entry in
+ * a {@link GaMaterializedEtc} only if the matrix fits the memory budget.
+ */
+public abstract class GaEtc {
+
+	/** The default memory budget of a materialized matrix, in bytes. */
+	public static final long DEFAULT_MEMORY_BUDGET = 64L << 20;
+
+	/**
+	 * Creates the etc of cloudlets of the given lengths on vms of the given mips.
+	 *
+	 * @param lengths the length of each cloudlet
+	 * @param mips the mips of each vm
+	 * @return the etc
+	 */
+	public static GaEtc create(double[] lengths, double[] mips) {
+		return new GaImplicitEtc(lengths, mips);
+	}
+
+	/**
+	 * Materializes a cost model if its matrix fits the memory budget, so each entry is computed
+	 * once; otherwise the entries keep being computed on the fly by the model.
+	 *
+	 * @param model the cost model
+	 * @param memoryBudget the most bytes the materialized matrix may take
+	 * @return the materialized matrix, or the model itself
+	 */
+	public static GaEtc materialize(GaEtc model, long memoryBudget) {
+		if ((long) model.getCloudletCount() * model.getVmCount() * 8 > memoryBudget) {
+			return model;
+		}
+		return new GaMaterializedEtc(model);
+	}
+
+	/**
+	 * Gets the etc of a cloudlet on a vm.
+	 *
+	 * @param cloudlet the cloudlet index
+	 * @param vm the vm index
+	 * @return the etc
+	 */
+	public abstract double get(int cloudlet, int vm);
+
+	/**
+	 * Gets the number of cloudlets.
+	 *
+	 * @return the cloudlet count
+	 */
+	public abstract int getCloudletCount();
+
+	/**
+	 * Gets the number of vms.
+	 *
+	 * @return the vm count
+	 */
+	public abstract int getVmCount();
+
+}
@@ -0,0 +1,198 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.Arrays;
+
+/**
+ * GaFitness computes the makespan of the chromosomes of a {@link GaPopulation}. The makespan of
+ * a chromosome is the load of its most loaded vm, where the load of a vm is the sum of the
+ * expected time to compute (etc) of the cloudlets allocated to it, as given by a {@link GaEtc}.
+ * <p>
+ * A chromosome is evaluated in a single pass over its genes, adding the etc of each cloudlet to
+ * the load of its vm, so the cost is linear in the number of cloudlets. Whole populations are
+ * evaluated {@link #LANES} chromosomes at a time; the chromosomes left over fall back to the one
+ * chromosome kernel.
+ */
+public class GaFitness {
+
+	/** The number of chromosomes evaluated together by the lane kernel. */
+	public static final int LANES = 4;
+
+	/** The expected time to compute of each cloudlet on each vm. */
+	private final GaEtc etc;
+
+	/** The scratch vm load vector. */
+	private final double[] load;
+
+	/** The scratch vm load vectors of the lane kernel. */
+	private final double[][] laneLoads;
+
+	/**
+	 * Creates a new fitness function.
+	 *
+	 * @param etc the expected time to compute of each cloudlet on each vm
+	 * @pre etc != null
+	 * @post $none
+	 */
+	public GaFitness(GaEtc etc) {
+		this.etc = etc;
+		int vmCount = etc.getVmCount();
+		load = new double[vmCount];
+		laneLoads = new double[LANES][vmCount];
+	}
+
+	/**
+	 * Computes the makespan of a chromosome.
+	 *
+	 * @param population the population
+	 * @param chromosome the chromosome
+	 * @return the makespan
+	 */
+	public double makespan(GaPopulation population, int chromosome) {
+		return makespan(population, chromosome, load);
+	}
+
+	/**
+	 * Computes the makespan of a chromosome held outside any population.
+	 *
+	 * @param genes the vm index of each cloudlet
+	 * @return the makespan
+	 */
+	public double makespan(int[] genes) {
+		Arrays.fill(load, 0.0);
+		for (int n = 0; n < genes.length; n++) {
+			load[genes[n]] += etc.get(n, genes[n]);
+		}
+		double max = 0.0;
+		for (double l : load) {
+			if (l > max) {
+				max = l;
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Computes the makespan of a chromosome using the given vm load vector, which is left
+	 * holding the load of each vm.
+	 *
+	 * @param population the population
+	 * @param chromosome the chromosome
+	 * @param load the vm load vector, with one entry per vm
+	 * @return the makespan
+	 */
+	public double makespan(GaPopulation population, int chromosome, double[] load) {
+		int offset = population.offset(chromosome);
+		int geneCount = population.getGeneCount();
+		Arrays.fill(load, 0.0);
+		for (int n = 0; n < geneCount; n++) {
+			int vm = population.get(offset + n);
+			load[vm] += etc.get(n, vm);
+		}
+		double max = 0.0;
+		for (double l : load) {
+			if (l > max) {
+				max = l;
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Computes the makespans of {@link #LANES} consecutive chromosomes in one pass over the genes.
+	 * Each lane adds into its own vm load vector, which is left holding the loads of its
+	 * chromosome. The lanes are independent, so the adds of different lanes overlap in the
+	 * pipeline.
+	 *
+	 * @param population the population
+	 * @param chromosome the first chromosome
+	 * @param loads the vm load vectors, one per lane
+	 * @param makespans the array receiving the makespan of each lane
+	 * @pre chromosome + LANES <= population.size()
+	 * @pre loads.length >= LANES
+	 * @pre makespans.length >= LANES
+	 */
+	public void makespans(GaPopulation population, int chromosome, double[][] loads, double[] makespans) {
+		int geneCount = population.getGeneCount();
+		int o0 = population.offset(chromosome);
+		int o1 = population.offset(chromosome + 1);
+		int o2 = population.offset(chromosome + 2);
+		int o3 = population.offset(chromosome + 3);
+		double[] l0 = loads[0];
+		double[] l1 = loads[1];
+		double[] l2 = loads[2];
+		double[] l3 = loads[3];
+		Arrays.fill(l0, 0.0);
+		Arrays.fill(l1, 0.0);
+		Arrays.fill(l2, 0.0);
+		Arrays.fill(l3, 0.0);
+		for (int n = 0; n < geneCount; n++) {
+			int v0 = population.get(o0 + n);
+			int v1 = population.get(o1 + n);
+			int v2 = population.get(o2 + n);
+			int v3 = population.get(o3 + n);
+			l0[v0] += etc.get(n, v0);
+			l1[v1] += etc.get(n, v1);
+			l2[v2] += etc.get(n, v2);
+			l3[v3] += etc.get(n, v3);
+		}
+		double m0 = 0.0, m1 = 0.0, m2 = 0.0, m3 = 0.0;
+		for (int q = 0; q < l0.length; q++) {
+			m0 = Math.max(m0, l0[q]);
+			m1 = Math.max(m1, l1[q]);
+			m2 = Math.max(m2, l2[q]);
+			m3 = Math.max(m3, l3[q]);
+		}
+		makespans[0] = m0;
+		makespans[1] = m1;
+		makespans[2] = m2;
+		makespans[3] = m3;
+	}
+
+	/**
+	 * Computes the makespan of every chromosome of a population.
+	 *
+	 * @param population the population
+	 * @param makespans the array receiving the makespan of each chromosome
+	 * @pre makespans.length >= population.size()
+	 */
+	public void evaluate(GaPopulation population, double[] makespans) {
+		double[] lanes = new double[LANES];
+		int m = 0;
+		for (; m + LANES <= population.size(); m += LANES) {
+			makespans(population, m, laneLoads, lanes);
+			System.arraycopy(lanes, 0, makespans, m, LANES);
+		}
+		for (; m < population.size(); m++) {
+			makespans[m] = makespan(population, m, load);
+		}
+	}
+
+	/**
+	 * Gets the expected time to compute of a cloudlet on a vm.
+	 *
+	 * @param cloudlet the cloudlet index
+	 * @param vm the vm index
+	 * @return the etc
+	 */
+	public double etc(int cloudlet, int vm) {
+		return etc.get(cloudlet, vm);
+	}
+
+	/**
+	 * Gets the expected time to compute of each cloudlet on each vm.
+	 *
+	 * @return the etc
+	 */
+	public GaEtc getEtc() {
+		return etc;
+	}
+
+}
@@ -0,0 +1,148 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation
+ *               of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009, The University of Melbourne, Australia
+ */
+
+
+package org.cloudbus.cloudsim.examples;
+
+import java.util.Random;
+
+import org.cloudbus.cloudsim.GaEtc;
+import org.cloudbus.cloudsim.GaFitness;
+import org.cloudbus.cloudsim.GaMaterializedEtc;
+import org.cloudbus.cloudsim.GaPopulation;
+
+/**
+ * A benchmark of the makespan kernels of the broker's genetic algorithm:
+ * the vm by cloudlet loop the broker used to run, the single pass kernel
+ * and the lane kernel evaluating several chromosomes at once, over a
+ * materialized and over an implicit etc.
+ *
+ * Usage: GaFitnessBenchmark [chromosomes] [cloudlets] [vms]
+ */
+public class GaFitnessBenchmark {
+
+	/** The number of timed rounds of each kernel. */
+	private static final int ROUNDS = 5;
+
+	/**
+	 * Creates main() to run this benchmark
+	 */
+	public static void main(String[] args) {
+		int cno = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+		int cloudlets = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+		int vms = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+
+		//same workload shape as CloudSimExample6
+		double[] lengths = new double[cloudlets];
+		for(int i=0;i<cloudlets;i++)
+			lengths[i]=1000+(2*i*10);
+		double[] mips = new double[vms];
+		for(int j=0;j<vms;j++)
+			mips[j]=1000+(2*j*10);
+		GaEtc implicitEtc = GaEtc.create(lengths, mips);
+		GaEtc etc = new GaMaterializedEtc(implicitEtc);
+		Random rand = new Random(1);
+		GaPopulation population = GaPopulation.create(cno, cloudlets, vms, GaPopulation.HEAP);
+		for(int m=0;m<cno;m++)
+		{
+			for(int n=0;n<cloudlets;n++)
+			{
+				population.setGene(m, n, rand.nextInt(vms));
+			}
+		}
+		GaFitness fitness = new GaFitness(etc);
+
+		System.out.println("GaFitnessBenchmark: "+cno+" chromosomes, "+cloudlets+" cloudlets, "+vms+" vms");
+		double[] reference = new double[cno];
+		double[] makespans = new double[cno];
+
+		double loop = 0;
+		for(int r=0;r<=ROUNDS;r++)
+		{
+			long start = System.nanoTime();
+			vmByCloudlet(population, etc, reference);
+			if(r>0)
+				loop += System.nanoTime()-start;
+		}
+
+		double single = 0;
+		for(int r=0;r<=ROUNDS;r++)
+		{
+			long start = System.nanoTime();
+			for(int m=0;m<cno;m++)
+				makespans[m]=fitness.makespan(population, m);
+			if(r>0)
+				single += System.nanoTime()-start;
+		}
+		check(reference, makespans);
+
+		double lanes = 0;
+		for(int r=0;r<=ROUNDS;r++)
+		{
+			long start = System.nanoTime();
+			fitness.evaluate(population, makespans);
+			if(r>0)
+				lanes += System.nanoTime()-start;
+		}
+		check(reference, makespans);
+
+		GaFitness implicitFitness = new GaFitness(implicitEtc);
+		double implicit = 0;
+		for(int r=0;r<=ROUNDS;r++)
+		{
+			long start = System.nanoTime();
+			implicitFitness.evaluate(population, makespans);
+			if(r>0)
+				implicit += System.nanoTime()-start;
+		}
+		check(reference, makespans);
+
+		System.out.println("vm x cloudlet loop : "+format(loop)+" ms");
+		System.out.println("single pass        : "+format(single)+" ms  ("+String.format("%.1f", loop/single)+"x)");
+		System.out.println("lane kernel        : "+format(lanes)+" ms  ("+String.format("%.1f", loop/lanes)+"x)");
+		System.out.println("lane, implicit etc : "+format(implicit)+" ms  ("+String.format("%.1f", loop/implicit)+"x)");
+	}
+
+	/**
+	 * The fitness loop submitCloudlets() used to run: for every vm, scan every cloudlet.
+	 */
+	private static void vmByCloudlet(GaPopulation population, GaEtc etc, double[] makespans) {
+		for(int m=0;m<population.size();m++)
+		{
+			double max = 0.0;
+			for(int q=0;q<population.getVmCount();q++)
+			{
+				double make = 0.0;
+				for(int n=0;n<population.getGeneCount();n++)
+				{
+					if(population.getGene(m, n)==q)
+					{
+						make+=etc.get(n, q);
+					}
+				}
+				max = Math.max(max, make);
+			}
+			makespans[m]=max;
+		}
+	}
+
+	private static void check(double[] expected, double[] actual) {
+		for(int m=0;m<expected.length;m++)
+		{
+			if(Math.abs(expected[m]-actual[m])>1e-6*expected[m])
+			{
+				throw new IllegalStateException("makespan mismatch for chromosome "+m);
+			}
+		}
+	}
+
+	private static String format(double nanos) {
+		return String.format("%.3f", nanos/ROUNDS/1e6);
+	}
+}
@@ -0,0 +1,64 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+/**
+ * GaHeapPopulation keeps all the genes in a single int array, chromosome after chromosome.
+ */
+public class GaHeapPopulation extends GaPopulation {
+
+	/** The genes of all the chromosomes, chromosome after chromosome. */
+	private final int[] genes;
+
+	/**
+	 * Creates a new population with every gene set to vm 0.
+	 *
+	 * @param size the number of chromosomes
+	 * @param geneCount the number of cloudlets
+	 * @param vmCount the number of vms
+	 * @pre size > 0
+	 * @pre geneCount >= 0
+	 * @pre vmCount > 0
+	 * @post $none
+	 */
+	public GaHeapPopulation(int size, int geneCount, int vmCount) {
+		super(size, geneCount, vmCount, Integer.MAX_VALUE);
+		genes = new int[size * geneCount];
+	}
+
+	@Override
+	public int get(int index) {
+		return genes[index];
+	}
+
+	@Override
+	public void set(int index, int vm) {
+		genes[index] = vm;
+	}
+
+	@Override
+	public void copyChromosome(GaPopulation source, int from, int to) {
+		if (source instanceof GaHeapPopulation) {
+			System.arraycopy(((GaHeapPopulation) source).genes, from * geneCount, genes, to * geneCount, geneCount);
+		} else {
+			super.copyChromosome(source, from, to);
+		}
+	}
+
+	@Override
+	public void setChromosome(int chromosome, int[] vms) {
+		System.arraycopy(vms, 0, genes, chromosome * geneCount, geneCount);
+	}
+
+	@Override
+	public void getChromosome(int chromosome, int[] vms) {
+		System.arraycopy(genes, chromosome * geneCount, vms, 0, geneCount);
+	}
+
+}
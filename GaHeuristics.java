@@ -0,0 +1,170 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+/**
+ * GaHeuristics builds seed chromosomes for the genetic algorithm with the classic list
+ * scheduling heuristics, each one a gene per cloudlet holding a vm index:
+ * <ul>
+ * <li>{@link #minMin(double[], double[])}: the cloudlet with the earliest completion time first,
+ * on the vm where it completes first;
+ * <li>{@link #maxMin(double[], double[])}: the cloudlet with the latest earliest completion time
+ * first, on the vm where it completes first;
+ * <li>{@link #sufferage(double[], double[])}: the cloudlet that would lose the most by missing
+ * its best vm first, on that vm.
+ * </ul>
+ * The etc of the broker is the cloudlet length over the vm mips, so every vm ranks the cloudlets
+ * alike and the cloudlet Min-Min picks is always the shortest one left, and the one Max-Min picks
+ * the longest one left. Both then run in one sorted pass, each vm coming from a
+ * {@link GaCompletionTree} in O(log V) amortized, so they cost O(C log C + C log V) instead of the
+ * textbook O(C&sup2; V). There is no separate LPT: on these uniform machines LPT places the
+ * longest cloudlet left on the vm where it completes first, which is the Max-Min chromosome.
+ * <p>
+ * Sufferage is an approximation: the cloudlets wait in a heap by their last known sufferage, and
+ * placing a cloudlet changes the sufferage of many others, up or down. Before each placement
+ * only the top of the heap is recomputed, at most {@link #SUFFERAGE_RECHECKS} times, so a
+ * cloudlet whose sufferage grew since its key was computed may be placed late. That bounds the
+ * cost to O(C log C) heap operations and tree queries, where the exact heuristic costs O(C&sup2;).
+ */
+public final class GaHeuristics {
+
+	/** The most cloudlets recomputed at the top of the Sufferage heap before a placement. */
+	public static final int SUFFERAGE_RECHECKS = 4;
+
+	/** The number of placements between two checks of the deadline. */
+	private static final int DEADLINE_INTERVAL = 1024;
+
+	/**
+	 * The class cannot be instantiated.
+	 */
+	private GaHeuristics() {
+	}
+
+	/**
+	 * Builds the Min-Min chromosome.
+	 *
+	 * @param lengths the length of each cloudlet
+	 * @param mips the mips of each vm
+	 * @return the chromosome
+	 * @pre mips.length > 0
+	 */
+	public static int[] minMin(double[] lengths, double[] mips) {
+		return earliestCompletion(lengths, mips, false);
+	}
+
+	/**
+	 * Builds the Max-Min chromosome.
+	 *
+	 * @param lengths the length of each cloudlet
+	 * @param mips the mips of each vm
+	 * @return the chromosome
+	 * @pre mips.length > 0
+	 */
+	public static int[] maxMin(double[] lengths, double[] mips) {
+		return earliestCompletion(lengths, mips, true);
+	}
+
+	/**
+	 * Builds the Sufferage chromosome without a deadline.
+	 *
+	 * @param lengths the length of each cloudlet
+	 * @param mips the mips of each vm
+	 * @return the chromosome
+	 * @pre mips.length > 0
+	 */
+	public static int[] sufferage(double[] lengths, double[] mips) {
+		return sufferage(lengths, mips, GaDeadline.NONE);
+	}
+
+	/**
+	 * Builds the Sufferage chromosome. The sufferage of a cloudlet is the gap between its
+	 * completion times on its second best and its best vm. The cloudlet at the top of the heap is
+	 * recomputed against the current ready times; it is placed if it stays at the top, or sinks
+	 * and the new top is recomputed, up to {@link #SUFFERAGE_RECHECKS} times, after which the top
+	 * is placed as it is. Once the deadline passes, the cloudlets left are placed in heap order
+	 * without recomputing them.
+	 *
+	 * @param lengths the length of each cloudlet
+	 * @param mips the mips of each vm
+	 * @param deadline the deadline
+	 * @return the chromosome
+	 * @pre mips.length > 0
+	 */
+	public static int[] sufferage(double[] lengths, double[] mips, GaDeadline deadline) {
+		int[] genes = new int[lengths.length];
+		if (lengths.length == 0) {
+			return genes;
+		}
+		GaCompletionTree tree = new GaCompletionTree(mips);
+		double[] sufferage = new double[lengths.length];
+		// by increasing length, so the tree moves one way while the heap is filled
+		for (int n : GaSort.order(lengths, false)) {
+			sufferage[n] = sufferage(tree, lengths[n]);
+		}
+		GaLoadHeap heap = new GaLoadHeap(sufferage, true);
+		int rechecks = SUFFERAGE_RECHECKS;
+		for (int placed = 0; placed < lengths.length; placed++) {
+			if (placed % DEADLINE_INTERVAL == 0 && deadline.isExpired()) {
+				rechecks = 0;
+			}
+			int n = heap.top();
+			for (int k = 0; k < rechecks; k++) {
+				double current = sufferage(tree, lengths[n]);
+				if (current == sufferage[n]) {
+					break;
+				}
+				sufferage[n] = current;
+				heap.update(n);
+				if (heap.top() == n) {
+					break;
+				}
+				n = heap.top();
+			}
+			int vm = tree.best(lengths[n]);
+			genes[n] = vm;
+			tree.setReady(vm, tree.completion(vm, lengths[n]));
+			sufferage[n] = Double.NEGATIVE_INFINITY;
+			heap.update(n);
+		}
+		return genes;
+	}
+
+	/**
+	 * Places the cloudlets by length, each on the vm where it completes first.
+	 *
+	 * @param lengths the length of each cloudlet
+	 * @param mips the mips of each vm
+	 * @param longestFirst whether to place the longest cloudlets first
+	 * @return the chromosome
+	 */
+	private static int[] earliestCompletion(double[] lengths, double[] mips, boolean longestFirst) {
+		int[] genes = new int[lengths.length];
+		GaCompletionTree tree = new GaCompletionTree(mips);
+		for (int n : GaSort.order(lengths, longestFirst)) {
+			int vm = tree.best(lengths[n]);
+			genes[n] = vm;
+			tree.setReady(vm, tree.completion(vm, lengths[n]));
+		}
+		return genes;
+	}
+
+	/**
+	 * Computes the sufferage of a cloudlet against the current ready times.
+	 *
+	 * @param tree the ready times
+	 * @param length the length of the cloudlet
+	 * @return the second best minus the best completion time, 0 with a single vm
+	 */
+	private static double sufferage(GaCompletionTree tree, double length) {
+		int best = tree.best(length);
+		int second = tree.runnerUp();
+		return second < 0 ? 0 : tree.completion(second, length) - tree.completion(best, length);
+	}
+
+}
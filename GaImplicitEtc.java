@@ -0,0 +1,70 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+/**
+ * GaImplicitEtc is the rank-1 etc where a cloudlet takes its length divided by the mips of the
+ * vm. Only the two vectors are stored, so the memory is O(C + V) instead of O(C x V).
+ */
+public class GaImplicitEtc extends GaEtc {
+
+	/** The length of each cloudlet. */
+	private final double[] lengths;
+
+	/** The mips of each vm. */
+	private final double[] mips;
+
+	/**
+	 * Creates a new implicit etc.
+	 *
+	 * @param lengths the length of each cloudlet
+	 * @param mips the mips of each vm
+	 * @pre lengths != null
+	 * @pre mips != null
+	 * @post $none
+	 */
+	public GaImplicitEtc(double[] lengths, double[] mips) {
+		this.lengths = lengths;
+		this.mips = mips;
+	}
+
+	@Override
+	public double get(int cloudlet, int vm) {
+		return lengths[cloudlet] / mips[vm];
+	}
+
+	@Override
+	public int getCloudletCount() {
+		return lengths.length;
+	}
+
+	@Override
+	public int getVmCount() {
+		return mips.length;
+	}
+
+	/**
+	 * Gets the length of each cloudlet.
+	 *
+	 * @return the lengths
+	 */
+	public double[] getLengths() {
+		return lengths;
+	}
+
+	/**
+	 * Gets the mips of each vm.
+	 *
+	 * @return the mips
+	 */
+	public double[] getMips() {
+		return mips;
+	}
+
+}
@@ -0,0 +1,226 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * GaIslands runs the genetic algorithm of the {@link DatacenterBroker} as several islands, each a
+ * {@link GaEngine} with its own population evolving on its own thread. Every few generations an
+ * island publishes its best chromosome and takes in the one published by the previous island of
+ * the ring, which replaces its worst chromosome if it is better.
+ * <p>
+ * The exchange goes through an {@link AtomicReferenceArray} of immutable migrants, so the islands
+ * never lock or wait for each other. Which migrant an island sees depends on thread timing, so
+ * runs with several islands are not reproducible from the seed alone.
+ * <p>
+ * With a {@link GaDeadline}, every island stops at its first generation boundary past it.
+ */
+public class GaIslands {
+
+	/** The islands. */
+	private final GaEngine[] islands;
+
+	/** The number of generations between two migrations. */
+	private final int migrationInterval;
+
+	/** The last migrant published by each island. */
+	private final AtomicReferenceArray<Migrant> outbox;
+
+	/** The best chromosome found by all the islands. */
+	private int[] best;
+
+	/** The makespan of the best chromosome. */
+	private double bestMakespan;
+
+	/**
+	 * Creates the islands.
+	 *
+	 * @param fitness the fitness function, shared by the islands
+	 * @param config the parameters of the algorithm, shared by the islands
+	 * @param islandCount the number of islands
+	 * @param cloudletCount the number of cloudlets
+	 * @param vmCount the number of vms
+	 * @param migrationInterval the number of generations between two migrations
+	 * @param random the random generator seeding the generator of each island
+	 * @pre islandCount > 0
+	 * @pre migrationInterval > 0
+	 * @post $none
+	 */
+	public GaIslands(GaFitness fitness, GaConfig config, int islandCount, int cloudletCount, int vmCount,
+			int migrationInterval, SplittableRandom random) {
+		if (islandCount <= 0 || migrationInterval <= 0) {
+			throw new IllegalArgumentException("GaIslands: invalid " + islandCount + " islands, migration every "
+					+ migrationInterval + " generations");
+		}
+		this.migrationInterval = migrationInterval;
+		islands = new GaEngine[islandCount];
+		for (int i = 0; i < islandCount; i++) {
+			islands[i] = new GaEngine(fitness, config, cloudletCount, vmCount, random.split());
+		}
+		outbox = new AtomicReferenceArray<Migrant>(islandCount);
+		bestMakespan = Double.MAX_VALUE;
+	}
+
+	/**
+	 * Evolves all the islands until each one converges, then keeps the best chromosome found.
+	 *
+	 * @param seeds the seed chromosomes given to every island
+	 */
+	public void run(final int[][] seeds) {
+		ExecutorService executor = Executors.newFixedThreadPool(islands.length);
+		try {
+			List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+			for (int i = 0; i < islands.length; i++) {
+				final int island = i;
+				tasks.add(new Callable<Void>() {
+
+					@Override
+					public Void call() {
+						evolve(island, seeds);
+						return null;
+					}
+				});
+			}
+			for (Future<Void> future : executor.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("GaIslands: interrupted", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("GaIslands: an island failed", e.getCause());
+		} finally {
+			executor.shutdown();
+		}
+
+		for (GaEngine engine : islands) {
+			if (engine.getBestMakespan() < bestMakespan) {
+				bestMakespan = engine.getBestMakespan();
+				best = engine.getBest();
+			}
+		}
+	}
+
+	/**
+	 * Evolves one island, publishing its best chromosome and taking in the migrant of the
+	 * previous island every migration interval.
+	 *
+	 * @param island the island
+	 * @param seeds the seed chromosomes
+	 */
+	private void evolve(int island, int[][] seeds) {
+		GaEngine engine = islands[island];
+		int previous = (island + islands.length - 1) % islands.length;
+		engine.initialize(seeds, false);
+		publish(island);
+		while (!engine.isConverged() && !engine.getDeadline().isExpired()) {
+			engine.generation();
+			if (engine.getGenerations() % migrationInterval == 0) {
+				publish(island);
+				Migrant migrant = outbox.get(previous);
+				if (migrant != null && previous != island) {
+					engine.immigrate(migrant.genes, migrant.makespan);
+				}
+			}
+		}
+		publish(island);
+	}
+
+	/**
+	 * Publishes a copy of the best chromosome of an island.
+	 *
+	 * @param island the island
+	 */
+	private void publish(int island) {
+		GaEngine engine = islands[island];
+		outbox.set(island, new Migrant(engine.getBest().clone(), engine.getBestMakespan()));
+	}
+
+	/**
+	 * Sets the deadline of an anytime run of every island.
+	 *
+	 * @param deadline the deadline
+	 * @pre deadline != null
+	 */
+	public void setDeadline(GaDeadline deadline) {
+		for (GaEngine engine : islands) {
+			engine.setDeadline(deadline);
+		}
+	}
+
+	/**
+	 * Sets the trace of every island, each one named after its index.
+	 *
+	 * @param trace the trace
+	 * @pre trace != null
+	 */
+	public void setTrace(GaTrace trace) {
+		for (int i = 0; i < islands.length; i++) {
+			islands[i].setTrace(trace, "island " + i);
+		}
+	}
+
+	/**
+	 * Gets the best chromosome found by all the islands.
+	 *
+	 * @return the best chromosome, or null before {@link #run(int[][])}
+	 */
+	public int[] getBest() {
+		return best;
+	}
+
+	/**
+	 * Gets the makespan of the best chromosome found by all the islands.
+	 *
+	 * @return the best makespan
+	 */
+	public double getBestMakespan() {
+		return bestMakespan;
+	}
+
+	/**
+	 * Gets the number of generations evolved by all the islands together.
+	 *
+	 * @return the generations
+	 */
+	public int getGenerations() {
+		int generations = 0;
+		for (GaEngine engine : islands) {
+			generations += engine.getGenerations();
+		}
+		return generations;
+	}
+
+	/**
+	 * Migrant is the best chromosome of an island at the time it was published. It is also what
+	 * the {@link GaWorker} processes exchange.
+	 */
+	static final class Migrant {
+
+		final int[] genes;
+
+		final double makespan;
+
+		Migrant(int[] genes, double makespan) {
+			this.genes = genes;
+			this.makespan = makespan;
+		}
+
+	}
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.SplittableRandom;
+
+/**
+ * GaLoadAwareCrossover builds the first offspring from the better placed gene of each position:
+ * where the parents disagree, it takes the gene whose vm carries the lower load in its own
+ * parent, and the second offspring takes the other one. The loads are those of the parents
+ * before the crossover, read from the {@link GaLoadTracker}. Ties are broken at random. The
+ * first offspring moves work away from the vms that make the makespan of either parent, while
+ * the second one keeps the diversity.
+ */
+public class GaLoadAwareCrossover extends GaCrossover {
+
+	@Override
+	public void cross(GaPopulation population, GaLoadTracker loads, int first, int second, SplittableRandom random) {
+		int cloudletCount = population.getGeneCount();
+		int vmCount = population.getVmCount();
+		double[] firstLoads = new double[vmCount];
+		double[] secondLoads = new double[vmCount];
+		for (int vm = 0; vm < vmCount; vm++) {
+			firstLoads[vm] = loads.getLoad(first, vm);
+			secondLoads[vm] = loads.getLoad(second, vm);
+		}
+		int moved = 0;
+		for (int n = 0; n < cloudletCount; n++) {
+			int vm = population.getGene(first, n);
+			int other = population.getGene(second, n);
+			if (vm == other) {
+				continue;
+			}
+			double load = firstLoads[vm];
+			double otherLoad = secondLoads[other];
+			if (otherLoad < load || (otherLoad == load && random.nextBoolean())) {
+				population.setGene(first, n, other);
+				population.setGene(second, n, vm);
+				moved++;
+			}
+		}
+		if (moved > 0) {
+			loads.evaluate(population, first);
+			loads.evaluate(population, second);
+		}
+	}
+
+	@Override
+	public boolean needsLoads() {
+		return true;
+	}
+
+	@Override
+	public String getName() {
+		return "load";
+	}
+
+}
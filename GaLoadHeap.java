@@ -0,0 +1,144 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+/**
+ * GaLoadHeap is an indexed binary heap of vms ordered by their load, the most loaded first or
+ * the least loaded first. It reads the loads from an array it shares with its owner; after the
+ * owner changes the load of a vm, {@link #update(int)} restores the order in O(log V).
+ * {@link GaHeuristics} also uses it to order cloudlets by sufferage.
+ */
+public class GaLoadHeap {
+
+	/** The load of each vm, owned by the caller. */
+	private final double[] load;
+
+	/** Whether the most loaded vm is at the top. */
+	private final boolean max;
+
+	/** The vms in heap order. */
+	private final int[] heap;
+
+	/** The position of each vm in the heap. */
+	private final int[] position;
+
+	/**
+	 * Creates a heap of all the vms of a load vector.
+	 *
+	 * @param load the load of each vm, shared with the caller
+	 * @param max true to put the most loaded vm at the top, false for the least loaded
+	 * @pre load.length > 0
+	 * @post $none
+	 */
+	public GaLoadHeap(double[] load, boolean max) {
+		this.load = load;
+		this.max = max;
+		heap = new int[load.length];
+		position = new int[load.length];
+		build();
+	}
+
+	/**
+	 * Orders the heap again after any number of load changes, in O(V).
+	 */
+	public void build() {
+		for (int vm = 0; vm < heap.length; vm++) {
+			heap[vm] = vm;
+			position[vm] = vm;
+		}
+		for (int i = heap.length / 2 - 1; i >= 0; i--) {
+			siftDown(i);
+		}
+	}
+
+	/**
+	 * Gets the vm at the top.
+	 *
+	 * @return the most or least loaded vm
+	 */
+	public int top() {
+		return heap[0];
+	}
+
+	/**
+	 * Restores the order after the load of a vm changed.
+	 *
+	 * @param vm the vm
+	 */
+	public void update(int vm) {
+		int i = position[vm];
+		siftUp(i);
+		siftDown(position[vm]);
+	}
+
+	/**
+	 * Checks whether a vm belongs above another one.
+	 *
+	 * @param a the first vm
+	 * @param b the second vm
+	 * @return true if a is strictly closer to the top
+	 */
+	private boolean above(int a, int b) {
+		return max ? load[a] > load[b] : load[a] < load[b];
+	}
+
+	/**
+	 * Moves an entry up to its place.
+	 *
+	 * @param i the position of the entry
+	 */
+	private void siftUp(int i) {
+		int vm = heap[i];
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (!above(vm, heap[parent])) {
+				break;
+			}
+			place(heap[parent], i);
+			i = parent;
+		}
+		place(vm, i);
+	}
+
+	/**
+	 * Moves an entry down to its place.
+	 *
+	 * @param i the position of the entry
+	 */
+	private void siftDown(int i) {
+		int vm = heap[i];
+		while (true) {
+			int child = 2 * i + 1;
+			if (child >= heap.length) {
+				break;
+			}
+			if (child + 1 < heap.length && above(heap[child + 1], heap[child])) {
+				child++;
+			}
+			if (!above(heap[child], vm)) {
+				break;
+			}
+			place(heap[child], i);
+			i = child;
+		}
+		place(vm, i);
+	}
+
+	/**
+	 * Puts a vm at a position of the heap.
+	 *
+	 * @param vm the vm
+	 * @param i the position
+	 */
+	private void place(int vm, int i) {
+		heap[i] = vm;
+		position[vm] = i;
+	}
+
+}
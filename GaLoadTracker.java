@@ -0,0 +1,330 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * GaLoadTracker keeps the vm load vector of every chromosome of a {@link GaPopulation} so that
+ * the makespan can be updated incrementally when genes change, instead of evaluating the whole
+ * chromosome again with {@link GaFitness}.
+ * <p>
+ * The loads of a chromosome are the leaves of a max segment tree, so moving a cloudlet from one
+ * vm to another costs O(log V) and the makespan is read from the root in O(1).
+ * <p>
+ * Full evaluations of the population can be split across the cores with the ForkJoin common
+ * pool. Each chromosome only writes its own tree, so the result does not depend on the number of
+ * threads. Only full evaluations are parallel: the gene by gene updates after crossover and
+ * mutation run on the caller's thread. A full evaluation can be given a {@link GaDeadline}; the
+ * chromosomes it leaves out get an infinite makespan, so they are never taken for the best.
+ */
+public class GaLoadTracker {
+
+	/** The least number of genes a parallel evaluation task handles without splitting. */
+	private static final int PARALLEL_THRESHOLD = 1 << 14;
+
+	/** The fitness function giving the etc of a cloudlet on a vm. */
+	private final GaFitness fitness;
+
+	/** The number of leaves of each tree, the smallest power of two not below the vm count. */
+	private final int leaves;
+
+	/** The trees of all the chromosomes, chromosome after chromosome; node 1 is the root. */
+	private final double[] tree;
+
+	/** The scratch vm load vector used for full evaluations. */
+	private final double[] load;
+
+	/**
+	 * Creates a new load tracker. All the loads are zero until the chromosomes are evaluated.
+	 *
+	 * @param fitness the fitness function
+	 * @param size the number of chromosomes
+	 * @param vmCount the number of vms
+	 * @pre fitness != null
+	 * @pre size > 0
+	 * @pre vmCount > 0
+	 * @post $none
+	 */
+	public GaLoadTracker(GaFitness fitness, int size, int vmCount) {
+		this.fitness = fitness;
+		int l = 1;
+		while (l < vmCount) {
+			l <<= 1;
+		}
+		leaves = l;
+		tree = new double[size * 2 * leaves];
+		load = new double[vmCount];
+	}
+
+	/**
+	 * Evaluates a chromosome from scratch and rebuilds its tree.
+	 *
+	 * @param population the population
+	 * @param chromosome the chromosome
+	 */
+	public void evaluate(GaPopulation population, int chromosome) {
+		evaluate(population, chromosome, load);
+	}
+
+	/**
+	 * Evaluates a chromosome from scratch using the given scratch load vector.
+	 *
+	 * @param population the population
+	 * @param chromosome the chromosome
+	 * @param load the scratch vm load vector
+	 */
+	private void evaluate(GaPopulation population, int chromosome, double[] load) {
+		fitness.makespan(population, chromosome, load);
+		build(chromosome, load);
+	}
+
+	/**
+	 * Evaluates a range of chromosomes from scratch, {@link GaFitness#LANES} at a time with the
+	 * lane kernel and the rest one by one.
+	 *
+	 * @param population the population
+	 * @param from the first chromosome
+	 * @param to the chromosome after the last one
+	 * @param loads the scratch vm load vectors, one per lane
+	 */
+	private void evaluate(GaPopulation population, int from, int to, double[][] loads) {
+		evaluate(population, from, to, loads, GaDeadline.NONE);
+	}
+
+	/**
+	 * Evaluates a range of chromosomes from scratch until the deadline, checked before each group
+	 * of lanes. The chromosomes left out are given an infinite makespan.
+	 *
+	 * @param population the population
+	 * @param from the first chromosome
+	 * @param to the chromosome after the last one
+	 * @param loads the scratch vm load vectors, one per lane
+	 * @param deadline the deadline
+	 * @return true if every chromosome of the range was evaluated
+	 */
+	private boolean evaluate(GaPopulation population, int from, int to, double[][] loads, GaDeadline deadline) {
+		double[] makespans = new double[GaFitness.LANES];
+		int m = from;
+		for (; m + GaFitness.LANES <= to; m += GaFitness.LANES) {
+			if (deadline.isExpired()) {
+				skip(m, to);
+				return false;
+			}
+			fitness.makespans(population, m, loads, makespans);
+			for (int lane = 0; lane < GaFitness.LANES; lane++) {
+				build(m + lane, loads[lane]);
+			}
+		}
+		if (m < to && deadline.isExpired()) {
+			skip(m, to);
+			return false;
+		}
+		for (; m < to; m++) {
+			evaluate(population, m, loads[0]);
+		}
+		return true;
+	}
+
+	/**
+	 * Gives a range of chromosomes an infinite makespan, for the ones a deadline left out.
+	 *
+	 * @param from the first chromosome
+	 * @param to the chromosome after the last one
+	 */
+	private void skip(int from, int to) {
+		Arrays.fill(tree, from * 2 * leaves, to * 2 * leaves, Double.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * Rebuilds the tree of a chromosome from its vm load vector.
+	 *
+	 * @param chromosome the chromosome
+	 * @param load the vm load vector
+	 */
+	private void build(int chromosome, double[] load) {
+		int base = chromosome * 2 * leaves;
+		Arrays.fill(tree, base, base + 2 * leaves, 0.0);
+		System.arraycopy(load, 0, tree, base + leaves, load.length);
+		for (int i = leaves - 1; i > 0; i--) {
+			tree[base + i] = Math.max(tree[base + 2 * i], tree[base + 2 * i + 1]);
+		}
+	}
+
+	/**
+	 * Evaluates every chromosome of a population from scratch.
+	 *
+	 * @param population the population
+	 */
+	public void evaluateAll(GaPopulation population) {
+		evaluate(population, 0, population.size(), new double[GaFitness.LANES][load.length]);
+	}
+
+	/**
+	 * Evaluates every chromosome of a population from scratch, splitting the chromosomes across
+	 * the ForkJoin common pool when the population is large enough.
+	 *
+	 * @param population the population
+	 * @param parallel whether to use the common pool
+	 */
+	public void evaluateAll(GaPopulation population, boolean parallel) {
+		evaluate(population, 0, population.size(), parallel, GaDeadline.NONE);
+	}
+
+	/**
+	 * Evaluates a range of chromosomes from scratch until the deadline, splitting the range
+	 * across the ForkJoin common pool when it is large enough. The deadline is checked between
+	 * chunks; the chromosomes left out get an infinite makespan.
+	 *
+	 * @param population the population
+	 * @param from the first chromosome
+	 * @param to the chromosome after the last one
+	 * @param parallel whether to use the common pool
+	 * @param deadline the deadline
+	 * @return true if every chromosome of the range was evaluated
+	 */
+	public boolean evaluate(GaPopulation population, int from, int to, boolean parallel, GaDeadline deadline) {
+		if (!parallel || (long) (to - from) * population.getGeneCount() < PARALLEL_THRESHOLD) {
+			return evaluate(population, from, to, new double[GaFitness.LANES][load.length], deadline);
+		}
+		int grain = Math.max(GaFitness.LANES, PARALLEL_THRESHOLD / Math.max(1, population.getGeneCount()));
+		EvaluateTask task = new EvaluateTask(population, from, to, grain, deadline);
+		ForkJoinPool.commonPool().invoke(task);
+		return task.complete;
+	}
+
+	/**
+	 * Copies the loads of a chromosome of another tracker (or of this one), to go with a
+	 * {@link GaPopulation#copyChromosome(GaPopulation, int, int)} of the same chromosome.
+	 *
+	 * @param source the tracker to copy from
+	 * @param from the chromosome in the source tracker
+	 * @param to the chromosome in this tracker
+	 * @pre source tracks the same number of vms
+	 */
+	public void copyChromosome(GaLoadTracker source, int from, int to) {
+		System.arraycopy(source.tree, from * 2 * leaves, tree, to * 2 * leaves, 2 * leaves);
+	}
+
+	/**
+	 * Sets a gene of the population and moves the etc of its cloudlet from the old vm to the new
+	 * one.
+	 *
+	 * @param population the population tracked by this tracker
+	 * @param chromosome the chromosome
+	 * @param gene the gene, i.e. the cloudlet index
+	 * @param vm the new vm index
+	 */
+	public void setGene(GaPopulation population, int chromosome, int gene, int vm) {
+		int old = population.getGene(chromosome, gene);
+		if (old == vm) {
+			return;
+		}
+		population.setGene(chromosome, gene, vm);
+		int base = chromosome * 2 * leaves;
+		update(base, old, -fitness.etc(gene, old));
+		update(base, vm, fitness.etc(gene, vm));
+	}
+
+	/**
+	 * Adds a delta to the load of a vm and fixes the maxima on the path to the root.
+	 *
+	 * @param base the offset of the tree
+	 * @param vm the vm index
+	 * @param delta the load delta
+	 */
+	private void update(int base, int vm, double delta) {
+		int i = leaves + vm;
+		tree[base + i] += delta;
+		for (i >>= 1; i > 0; i >>= 1) {
+			tree[base + i] = Math.max(tree[base + 2 * i], tree[base + 2 * i + 1]);
+		}
+	}
+
+	/**
+	 * Gets the load of a vm in a chromosome.
+	 *
+	 * @param chromosome the chromosome
+	 * @param vm the vm index
+	 * @return the load
+	 */
+	public double getLoad(int chromosome, int vm) {
+		return tree[chromosome * 2 * leaves + leaves + vm];
+	}
+
+	/**
+	 * Gets the makespan of a chromosome, i.e. the load of its most loaded vm.
+	 *
+	 * @param chromosome the chromosome
+	 * @return the makespan
+	 */
+	public double makespan(int chromosome) {
+		return tree[chromosome * 2 * leaves + 1];
+	}
+
+	/**
+	 * Gets the makespan of every chromosome.
+	 *
+	 * @param makespans the array receiving the makespan of each chromosome
+	 * @pre makespans.length >= number of chromosomes
+	 */
+	public void makespans(double[] makespans) {
+		int size = tree.length / (2 * leaves);
+		for (int m = 0; m < size; m++) {
+			makespans[m] = makespan(m);
+		}
+	}
+
+	/**
+	 * EvaluateTask evaluates a range of chromosomes, halving the range until it is below the
+	 * grain. Each leaf task has its own scratch load vector and skips its range once the deadline
+	 * has passed.
+	 */
+	private class EvaluateTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final GaPopulation population;
+
+		private final int from;
+
+		private final int to;
+
+		private final int grain;
+
+		private final GaDeadline deadline;
+
+		private boolean complete;
+
+		EvaluateTask(GaPopulation population, int from, int to, int grain, GaDeadline deadline) {
+			this.population = population;
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+			this.deadline = deadline;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= grain) {
+				complete = evaluate(population, from, to, new double[GaFitness.LANES][load.length], deadline);
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			EvaluateTask low = new EvaluateTask(population, from, mid, grain, deadline);
+			EvaluateTask high = new EvaluateTask(population, mid, to, grain, deadline);
+			invokeAll(low, high);
+			complete = low.complete && high.complete;
+		}
+
+	}
+
+}
@@ -0,0 +1,275 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.Arrays;
+
+/**
+ * GaLocalSearch refines a chromosome by hill climbing, the memetic stage of the
+ * {@link GaEngine}. Each step takes the most loaded vm and the least loaded one, and moves one
+ * cloudlet from the first to the second, or failing that swaps a cloudlet of each, as long as
+ * both vms end below the old load of the most loaded one. Every accepted step lowers the vm loads
+ * in lexicographic order from the top, so the search cannot cycle; it stops when no step is
+ * accepted, the move budget is spent or the deadline passes.
+ * <p>
+ * The loads are kept in an indexed max heap and an indexed min heap ({@link GaLoadHeap}), and the
+ * cloudlets of each vm in linked lists, so applying a step costs O(log V). Finding a step costs
+ * more: with k<sub>h</sub> cloudlets on the most loaded vm and k<sub>l</sub> on the least loaded
+ * one, the best move takes k<sub>h</sub> etc lookups. The swap, tried only when no move helps,
+ * sorts the cloudlets of the least loaded vm by etc and binary searches one partner for each
+ * cloudlet of the most loaded vm, in O(k<sub>l</sub> log k<sub>l</sub> + k<sub>h</sub> log
+ * k<sub>l</sub>). The partner found is the one to try when every vm ranks the cloudlets alike, as
+ * with the etc of the broker, length over mips; with other etc models a swap may be missed. The
+ * chromosome and its {@link GaLoadTracker} are updated gene by gene.
+ */
+public class GaLocalSearch {
+
+	/** The fitness function giving the etc of a cloudlet on a vm. */
+	private final GaFitness fitness;
+
+	/** The load of each vm. */
+	private final double[] load;
+
+	/** The vms by decreasing load. */
+	private final GaLoadHeap most;
+
+	/** The vms by increasing load. */
+	private final GaLoadHeap least;
+
+	/** The first cloudlet of each vm, or -1. */
+	private final int[] head;
+
+	/** The next cloudlet on the same vm, or -1. */
+	private final int[] next;
+
+	/** The previous cloudlet on the same vm, or -1. */
+	private final int[] previous;
+
+	/** The vm of each cloudlet. */
+	private final int[] vmOf;
+
+	/** The number of cloudlets of each vm. */
+	private final int[] count;
+
+	/**
+	 * Creates a new local search.
+	 *
+	 * @param fitness the fitness function
+	 * @param cloudletCount the number of cloudlets
+	 * @param vmCount the number of vms
+	 * @pre fitness != null
+	 * @pre vmCount > 0
+	 * @post $none
+	 */
+	public GaLocalSearch(GaFitness fitness, int cloudletCount, int vmCount) {
+		this.fitness = fitness;
+		load = new double[vmCount];
+		most = new GaLoadHeap(load, true);
+		least = new GaLoadHeap(load, false);
+		head = new int[vmCount];
+		next = new int[cloudletCount];
+		previous = new int[cloudletCount];
+		vmOf = new int[cloudletCount];
+		count = new int[vmCount];
+	}
+
+	/**
+	 * Refines a chromosome in place, without a deadline.
+	 *
+	 * @param population the population
+	 * @param loads the load tracker of the population, kept up to date
+	 * @param chromosome the chromosome
+	 * @param maxMoves the most steps to take
+	 * @return the number of steps taken
+	 */
+	public int refine(GaPopulation population, GaLoadTracker loads, int chromosome, int maxMoves) {
+		return refine(population, loads, chromosome, maxMoves, GaDeadline.NONE);
+	}
+
+	/**
+	 * Refines a chromosome in place until the deadline, checked between steps.
+	 *
+	 * @param population the population
+	 * @param loads the load tracker of the population, kept up to date
+	 * @param chromosome the chromosome
+	 * @param maxMoves the most steps to take
+	 * @param deadline the deadline
+	 * @return the number of steps taken
+	 */
+	public int refine(GaPopulation population, GaLoadTracker loads, int chromosome, int maxMoves,
+			GaDeadline deadline) {
+		Arrays.fill(head, -1);
+		Arrays.fill(count, 0);
+		for (int n = population.getGeneCount() - 1; n >= 0; n--) {
+			int vm = population.getGene(chromosome, n);
+			link(n, vm);
+		}
+		for (int vm = 0; vm < load.length; vm++) {
+			load[vm] = loads.getLoad(chromosome, vm);
+		}
+		most.build();
+		least.build();
+
+		int moves = 0;
+		while (moves < maxMoves && !deadline.isExpired()) {
+			int high = most.top();
+			int low = least.top();
+			if (high == low || !(step(population, loads, chromosome, high, low))) {
+				break;
+			}
+			moves++;
+		}
+		return moves;
+	}
+
+	/**
+	 * Takes one step from the most loaded vm to the least loaded one: the move that leaves the
+	 * lowest of the two loads, or else the first swap that improves. Swapping c of the high vm
+	 * with d of the low one helps when etc(d, high) &lt; etc(c, high) and etc(d, low) &gt; etc(c,
+	 * low) - gap, the gap being the difference of the two loads; for each c the cloudlet d of
+	 * least etc on the low vm above that bound is tried.
+	 *
+	 * @param population the population
+	 * @param loads the load tracker of the population
+	 * @param chromosome the chromosome
+	 * @param high the most loaded vm
+	 * @param low the least loaded vm
+	 * @return true if a step was taken
+	 */
+	private boolean step(GaPopulation population, GaLoadTracker loads, int chromosome, int high, int low) {
+		double limit = load[high];
+		int bestCloudlet = -1;
+		double bestLoad = limit;
+		for (int c = head[high]; c >= 0; c = next[c]) {
+			double newHigh = load[high] - fitness.etc(c, high);
+			double newLow = load[low] + fitness.etc(c, low);
+			double worst = Math.max(newHigh, newLow);
+			if (worst < bestLoad) {
+				bestLoad = worst;
+				bestCloudlet = c;
+			}
+		}
+		if (bestCloudlet >= 0) {
+			move(population, loads, chromosome, bestCloudlet, high, low);
+			return true;
+		}
+		if (count[low] == 0) {
+			return false;
+		}
+		int[] partners = new int[count[low]];
+		double[] etc = new double[count[low]];
+		int k = 0;
+		for (int d = head[low]; d >= 0; d = next[d]) {
+			partners[k] = d;
+			etc[k] = fitness.etc(d, low);
+			k++;
+		}
+		int[] order = GaSort.order(etc, false);
+		double[] sorted = new double[k];
+		for (int i = 0; i < k; i++) {
+			sorted[i] = etc[order[i]];
+		}
+		double gap = load[high] - load[low];
+		for (int c = head[high]; c >= 0; c = next[c]) {
+			int i = firstAbove(sorted, fitness.etc(c, low) - gap);
+			if (i == k) {
+				continue;
+			}
+			int d = partners[order[i]];
+			double newHigh = load[high] - fitness.etc(c, high) + fitness.etc(d, high);
+			double newLow = load[low] - fitness.etc(d, low) + fitness.etc(c, low);
+			if (newHigh < limit && newLow < limit) {
+				move(population, loads, chromosome, c, high, low);
+				move(population, loads, chromosome, d, low, high);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Finds the first value of a sorted array above a bound.
+	 *
+	 * @param sorted the values in increasing order
+	 * @param bound the bound
+	 * @return the index of the first value greater than the bound, or the length if none is
+	 */
+	private static int firstAbove(double[] sorted, double bound) {
+		int from = 0;
+		int to = sorted.length;
+		while (from < to) {
+			int middle = (from + to) >>> 1;
+			if (sorted[middle] > bound) {
+				to = middle;
+			} else {
+				from = middle + 1;
+			}
+		}
+		return from;
+	}
+
+	/**
+	 * Moves a cloudlet between two vms in the chromosome, the tracker, the loads and the lists.
+	 *
+	 * @param population the population
+	 * @param loads the load tracker of the population
+	 * @param chromosome the chromosome
+	 * @param cloudlet the cloudlet
+	 * @param from the vm of the cloudlet
+	 * @param to the new vm of the cloudlet
+	 */
+	private void move(GaPopulation population, GaLoadTracker loads, int chromosome, int cloudlet, int from,
+			int to) {
+		loads.setGene(population, chromosome, cloudlet, to);
+		unlink(cloudlet);
+		link(cloudlet, to);
+		load[from] -= fitness.etc(cloudlet, from);
+		load[to] += fitness.etc(cloudlet, to);
+		most.update(from);
+		most.update(to);
+		least.update(from);
+		least.update(to);
+	}
+
+	/**
+	 * Adds a cloudlet to the list of a vm.
+	 *
+	 * @param cloudlet the cloudlet
+	 * @param vm the vm
+	 */
+	private void link(int cloudlet, int vm) {
+		vmOf[cloudlet] = vm;
+		count[vm]++;
+		previous[cloudlet] = -1;
+		next[cloudlet] = head[vm];
+		if (head[vm] >= 0) {
+			previous[head[vm]] = cloudlet;
+		}
+		head[vm] = cloudlet;
+	}
+
+	/**
+	 * Removes a cloudlet from the list of its vm.
+	 *
+	 * @param cloudlet the cloudlet
+	 */
+	private void unlink(int cloudlet) {
+		int vm = vmOf[cloudlet];
+		count[vm]--;
+		if (previous[cloudlet] >= 0) {
+			next[previous[cloudlet]] = next[cloudlet];
+		} else {
+			head[vm] = next[cloudlet];
+		}
+		if (next[cloudlet] >= 0) {
+			previous[next[cloudlet]] = previous[cloudlet];
+		}
+	}
+
+}
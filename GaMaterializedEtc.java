@@ -0,0 +1,78 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+/**
+ * GaMaterializedEtc stores every entry of the etc matrix, one row per cloudlet. It is meant for
+ * cost models that are not a cloudlet length divided by a vm speed, see
+ * {@link GaEtc#materialize(GaEtc, long)}.
+ */
+public class GaMaterializedEtc extends GaEtc {
+
+	/** The etc of each cloudlet (row) on each vm (column). */
+	private final double[][] etc;
+
+	/** The number of vms. */
+	private final int vmCount;
+
+	/**
+	 * Creates a new materialized etc over the given matrix.
+	 *
+	 * @param etc the matrix, one row per cloudlet and one column per vm
+	 * @param vmCount the number of vms
+	 * @pre etc != null
+	 * @post $none
+	 */
+	public GaMaterializedEtc(double[][] etc, int vmCount) {
+		this.etc = etc;
+		this.vmCount = vmCount;
+	}
+
+	/**
+	 * Creates a new materialized etc holding every entry of another etc.
+	 *
+	 * @param source the etc to materialize
+	 * @post $none
+	 */
+	public GaMaterializedEtc(GaEtc source) {
+		vmCount = source.getVmCount();
+		etc = new double[source.getCloudletCount()][vmCount];
+		for (int i = 0; i < etc.length; i++) {
+			for (int j = 0; j < vmCount; j++) {
+				etc[i][j] = source.get(i, j);
+			}
+		}
+	}
+
+	@Override
+	public double get(int cloudlet, int vm) {
+		return etc[cloudlet][vm];
+	}
+
+	@Override
+	public int getCloudletCount() {
+		return etc.length;
+	}
+
+	@Override
+	public int getVmCount() {
+		return vmCount;
+	}
+
+	/**
+	 * Gets the row of a cloudlet.
+	 *
+	 * @param cloudlet the cloudlet index
+	 * @return the etc of the cloudlet on each vm
+	 */
+	public double[] getRow(int cloudlet) {
+		return etc[cloudlet];
+	}
+
+}
@@ -0,0 +1,621 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * GaNsgaEngine evolves cloudlet to vm allocations against two objectives at once, the makespan
+ * given by a {@link GaFitness} and the monetary cost given by a {@link GaCost}, with NSGA-II.
+ * Every generation the parents, picked by binary tournaments on front and crowding distance,
+ * produce as many offspring with the {@link GaCrossover} and the mutation of {@link GaEngine}.
+ * Parents and offspring are then sorted into non-dominated fronts, and the next parents are the
+ * best fronts, the last one cut by crowding distance so the trade-off stays spread out.
+ * <p>
+ * With two objectives the non-dominated sort runs in O(N log N): the chromosomes are sorted by
+ * makespan, then each one goes to the first front whose last member does not dominate it, found
+ * by binary search. Fronts are kept in flat arrays, and the crowding distance needs no further
+ * sort since a front sorted by makespan is sorted by decreasing cost.
+ * <p>
+ * The population size, rates, generation cap, stagnation window and time limit come from the
+ * {@link GaConfig}; the selection strategy and elite count do not apply. A generation counts
+ * towards stagnation when the hypervolume of the front, the area it dominates up to a reference
+ * point set 10% beyond the worst initial objectives, did not grow.
+ */
+public class GaNsgaEngine {
+
+	/** The makespan objective. */
+	private final GaFitness fitness;
+
+	/** The cost objective. */
+	private final GaCost cost;
+
+	/** The parameters of the algorithm. */
+	private final GaConfig config;
+
+	/** The random generator of the stochastic operators. */
+	private final SplittableRandom random;
+
+	/** The number of parents. */
+	private final int size;
+
+	/** The parents, then the offspring. */
+	private GaPopulation population;
+
+	/** The population the next parents are moved to. */
+	private GaPopulation next;
+
+	/** The makespan of each chromosome. */
+	private double[] makespans;
+
+	/** The cost of each chromosome. */
+	private double[] costs;
+
+	/** The front of each chromosome, 0 being the non-dominated one. */
+	private int[] rank;
+
+	/** The crowding distance of each chromosome in its front. */
+	private double[] crowding;
+
+	/** The objectives, fronts and crowding distances of the next parents. */
+	private double[] nextMakespans;
+
+	private double[] nextCosts;
+
+	private int[] nextRank;
+
+	private double[] nextCrowding;
+
+	/** The chromosomes sorted by makespan, then grouped by front. */
+	private final int[] order;
+
+	/** The scratch arrays of the sorts. */
+	private final int[] scratch;
+
+	private final int[] frontStart;
+
+	private final int[] frontLast;
+
+	/** The vm loads of the parents being crossed, or null if the crossover does not read them. */
+	private final GaLoadTracker crossoverLoads;
+
+	/** The deadline of an anytime run. */
+	private GaDeadline deadline = GaDeadline.NONE;
+
+	/** The trace of the run. */
+	private GaTrace trace = GaTrace.DISABLED;
+
+	/** The reference point of the hypervolume. */
+	private double referenceMakespan;
+
+	private double referenceCost;
+
+	/** The largest hypervolume of the front so far. */
+	private double bestVolume;
+
+	/** The number of generations evolved. */
+	private int generations;
+
+	/** The number of generations since the last mutation. */
+	private int sinceMutation;
+
+	/** The number of generations in a row that improved neither objective. */
+	private int sameCount;
+
+	/**
+	 * Creates a new engine.
+	 *
+	 * @param fitness the makespan objective
+	 * @param cost the cost objective
+	 * @param config the parameters of the algorithm
+	 * @param cloudletCount the number of cloudlets
+	 * @param vmCount the number of vms
+	 * @param random the random generator
+	 * @pre fitness != null
+	 * @pre cost != null
+	 * @pre config != null
+	 * @pre vmCount > 0
+	 * @post $none
+	 */
+	public GaNsgaEngine(GaFitness fitness, GaCost cost, GaConfig config, int cloudletCount, int vmCount,
+			SplittableRandom random) {
+		this.fitness = fitness;
+		this.cost = cost;
+		this.config = config;
+		this.random = random;
+		size = config.getPopulationSize();
+		int total = 2 * size;
+		population = new GaHeapPopulation(total, cloudletCount, vmCount);
+		next = new GaHeapPopulation(total, cloudletCount, vmCount);
+		makespans = new double[total];
+		costs = new double[total];
+		rank = new int[total];
+		crowding = new double[total];
+		nextMakespans = new double[total];
+		nextCosts = new double[total];
+		nextRank = new int[total];
+		nextCrowding = new double[total];
+		order = new int[total];
+		scratch = new int[total];
+		frontStart = new int[total + 1];
+		frontLast = new int[total];
+		crossoverLoads = config.getCrossover().needsLoads() ? new GaLoadTracker(fitness, total, vmCount) : null;
+	}
+
+	/**
+	 * Creates the initial parents: the seeds and the cheapest allocation are placed in the last
+	 * chromosomes and the other chromosomes are random.
+	 *
+	 * @param seeds the seed chromosomes
+	 */
+	public void initialize(int[][] seeds) {
+		int[][] all = new int[seeds.length + 1][];
+		System.arraycopy(seeds, 0, all, 0, seeds.length);
+		all[seeds.length] = cost.cheapest();
+		int randomCount = Math.max(0, size - all.length);
+		for (int m = 0; m < randomCount && !deadline.isExpired(); m++) {
+			for (int n = 0; n < population.getGeneCount(); n++) {
+				population.setGene(m, n, random.nextInt(population.getVmCount()));
+			}
+		}
+		for (int s = 0; randomCount + s < size; s++) {
+			population.setChromosome(randomCount + s, all[s]);
+		}
+		// the seeds first, so a deadline always leaves an allocation to use
+		for (int m = size - 1; m >= 0; m--) {
+			if (m < randomCount && deadline.isExpired()) {
+				makespans[m] = Double.POSITIVE_INFINITY;
+				costs[m] = Double.POSITIVE_INFINITY;
+			} else {
+				evaluate(m);
+			}
+		}
+		for (int m = 0; m < size; m++) {
+			if (!Double.isInfinite(makespans[m])) {
+				referenceMakespan = Math.max(referenceMakespan, makespans[m] * 1.1);
+				referenceCost = Math.max(referenceCost, costs[m] * 1.1);
+			}
+		}
+		int fronts = sort(size);
+		for (int f = 0; f < fronts; f++) {
+			crowd(frontStart[f], frontStart[f + 1]);
+		}
+		bestVolume = hypervolume();
+	}
+
+	/**
+	 * Evolves generations until the run converges or the deadline passes.
+	 */
+	public void run() {
+		while (!isConverged() && !deadline.isExpired()) {
+			generation();
+		}
+	}
+
+	/**
+	 * Evolves one generation.
+	 */
+	public void generation() {
+		int cloudletCount = population.getGeneCount();
+		int vmCount = population.getVmCount();
+
+		// SELECTION, the offspring go after the parents
+		for (int i = 0; i < size; i++) {
+			population.copyChromosome(population, tournament(), size + i);
+		}
+
+		// CROSSOVER
+		double crossoverRate = config.getCrossoverRate();
+		GaCrossover crossover = config.getCrossover();
+		for (int m = size; m + 1 < 2 * size; m += 2) {
+			if (crossoverRate < 1.0 && random.nextDouble() >= crossoverRate) {
+				continue;
+			}
+			if (crossoverLoads != null) {
+				crossoverLoads.evaluate(population, m);
+				crossoverLoads.evaluate(population, m + 1);
+			}
+			crossover.cross(population, crossoverLoads, m, m + 1, random);
+		}
+
+		// MUTATION
+		generations++;
+		sinceMutation++;
+		if (sinceMutation >= config.getMutationInterval() && cloudletCount > 0) {
+			sinceMutation = 0;
+			double mutationRate = config.getMutationRate();
+			for (int m = size; m < 2 * size; m++) {
+				if (mutationRate < 1.0 && random.nextDouble() >= mutationRate) {
+					continue;
+				}
+				population.setGene(m, random.nextInt(cloudletCount), random.nextInt(vmCount));
+			}
+		}
+
+		for (int m = size; m < 2 * size; m++) {
+			evaluate(m);
+		}
+		survive();
+		double volume = hypervolume();
+		if (volume > bestVolume) {
+			bestVolume = volume;
+			sameCount = 0;
+		} else {
+			sameCount++;
+		}
+		if (trace.isEnabled(GaTrace.SUMMARY)) {
+			traceSummary(volume);
+		}
+	}
+
+	/**
+	 * Traces the summary of the current generation: the size of the first front, its fastest
+	 * makespan and lowest cost, and its hypervolume.
+	 *
+	 * @param volume the hypervolume of the first front
+	 */
+	private void traceSummary(double volume) {
+		int count = 0;
+		double fastest = Double.POSITIVE_INFINITY;
+		double cheapest = Double.POSITIVE_INFINITY;
+		for (int m = 0; m < size; m++) {
+			if (rank[m] == 0) {
+				count++;
+				fastest = Math.min(fastest, makespans[m]);
+				cheapest = Math.min(cheapest, costs[m]);
+			}
+		}
+		trace.log(String.format("nsga generation %d front %d fastest %.4f cheapest %.4f hypervolume %.4f",
+				generations, count, fastest, cheapest, volume));
+	}
+
+	/**
+	 * Evaluates both objectives of a chromosome.
+	 *
+	 * @param chromosome the chromosome
+	 */
+	private void evaluate(int chromosome) {
+		makespans[chromosome] = fitness.makespan(population, chromosome);
+		costs[chromosome] = cost.cost(population, chromosome);
+	}
+
+	/**
+	 * Picks a parent with a binary tournament: the lower front wins, then the larger crowding
+	 * distance.
+	 *
+	 * @return the parent
+	 */
+	private int tournament() {
+		int a = random.nextInt(size);
+		int b = random.nextInt(size);
+		if (rank[b] < rank[a] || rank[b] == rank[a] && crowding[b] > crowding[a]) {
+			return b;
+		}
+		return a;
+	}
+
+	/**
+	 * Sorts parents and offspring into fronts and moves the best half to the parent slots, with
+	 * their objectives, fronts and crowding distances.
+	 */
+	private void survive() {
+		int fronts = sort(2 * size);
+		int taken = 0;
+		for (int f = 0; f < fronts && taken < size; f++) {
+			int from = frontStart[f];
+			int to = frontStart[f + 1];
+			crowd(from, to);
+			if (taken + to - from > size) {
+				// the last front that fits only partly keeps its least crowded chromosomes
+				sortByCrowding(from, to);
+				to = from + size - taken;
+			}
+			for (int i = from; i < to; i++) {
+				int m = order[i];
+				next.copyChromosome(population, m, taken);
+				nextMakespans[taken] = makespans[m];
+				nextCosts[taken] = costs[m];
+				nextRank[taken] = rank[m];
+				nextCrowding[taken] = crowding[m];
+				taken++;
+			}
+		}
+		GaPopulation swapPopulation = population;
+		population = next;
+		next = swapPopulation;
+		double[] swap = makespans;
+		makespans = nextMakespans;
+		nextMakespans = swap;
+		swap = costs;
+		costs = nextCosts;
+		nextCosts = swap;
+		swap = crowding;
+		crowding = nextCrowding;
+		nextCrowding = swap;
+		int[] swapRank = rank;
+		rank = nextRank;
+		nextRank = swapRank;
+	}
+
+	/**
+	 * Sorts the first chromosomes into non-dominated fronts. Afterwards {@link #order} holds the
+	 * chromosomes front after front, each front by increasing makespan, and front f spans
+	 * {@link #frontStart}[f] to {@link #frontStart}[f + 1].
+	 *
+	 * @param count the number of chromosomes
+	 * @return the number of fronts
+	 */
+	private int sort(int count) {
+		for (int i = 0; i < count; i++) {
+			order[i] = i;
+		}
+		mergeSort(0, count, false);
+		int fronts = 0;
+		for (int i = 0; i < count; i++) {
+			int m = order[i];
+			// the first front whose last member does not dominate m
+			int low = 0;
+			int high = fronts;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (dominates(frontLast[mid], m)) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			rank[m] = low;
+			frontLast[low] = m;
+			if (low == fronts) {
+				fronts++;
+			}
+		}
+
+		// group by front, keeping the makespan order within each front
+		Arrays.fill(frontStart, 0, fronts + 1, 0);
+		for (int i = 0; i < count; i++) {
+			frontStart[rank[i] + 1]++;
+		}
+		for (int f = 0; f < fronts; f++) {
+			frontStart[f + 1] += frontStart[f];
+		}
+		int[] position = frontLast;
+		System.arraycopy(frontStart, 0, position, 0, fronts);
+		for (int i = 0; i < count; i++) {
+			int m = order[i];
+			scratch[position[rank[m]]++] = m;
+		}
+		System.arraycopy(scratch, 0, order, 0, count);
+		return fronts;
+	}
+
+	/**
+	 * Checks whether a chromosome dominates another one: no worse on both objectives and better
+	 * on one.
+	 *
+	 * @param a the first chromosome
+	 * @param b the second chromosome
+	 * @return true if a dominates b
+	 */
+	private boolean dominates(int a, int b) {
+		return makespans[a] <= makespans[b] && costs[a] <= costs[b]
+				&& (makespans[a] < makespans[b] || costs[a] < costs[b]);
+	}
+
+	/**
+	 * Computes the crowding distances of a front, sorted by increasing makespan and so by
+	 * decreasing cost. The two ends get an infinite distance, and so do the chromosomes with an
+	 * infinite objective and their neighbours, which are the ends of the finite part of the front:
+	 * the distances are only ever taken over finite objectives, which never gives NaN.
+	 *
+	 * @param from the start of the front in {@link #order}
+	 * @param to the end of the front in {@link #order}
+	 */
+	private void crowd(int from, int to) {
+		double minMakespan = Double.POSITIVE_INFINITY;
+		double maxMakespan = Double.NEGATIVE_INFINITY;
+		double minCost = Double.POSITIVE_INFINITY;
+		double maxCost = Double.NEGATIVE_INFINITY;
+		for (int i = from; i < to; i++) {
+			int m = order[i];
+			if (isFinite(m)) {
+				minMakespan = Math.min(minMakespan, makespans[m]);
+				maxMakespan = Math.max(maxMakespan, makespans[m]);
+				minCost = Math.min(minCost, costs[m]);
+				maxCost = Math.max(maxCost, costs[m]);
+			}
+		}
+		double makespanRange = maxMakespan - minMakespan;
+		double costRange = maxCost - minCost;
+		for (int i = from; i < to; i++) {
+			int m = order[i];
+			if (i == from || i == to - 1 || !isFinite(m) || !isFinite(order[i - 1]) || !isFinite(order[i + 1])) {
+				crowding[m] = Double.POSITIVE_INFINITY;
+				continue;
+			}
+			double distance = 0.0;
+			if (makespanRange > 0) {
+				distance += (makespans[order[i + 1]] - makespans[order[i - 1]]) / makespanRange;
+			}
+			if (costRange > 0) {
+				distance += (costs[order[i - 1]] - costs[order[i + 1]]) / costRange;
+			}
+			crowding[m] = distance;
+		}
+	}
+
+	/**
+	 * Tells whether both objectives of a chromosome are finite.
+	 *
+	 * @param m the chromosome
+	 * @return true if its makespan and cost are finite
+	 */
+	private boolean isFinite(int m) {
+		return !Double.isInfinite(makespans[m]) && !Double.isInfinite(costs[m]);
+	}
+
+	/**
+	 * Sorts a front by decreasing crowding distance.
+	 *
+	 * @param from the start of the front in {@link #order}
+	 * @param to the end of the front in {@link #order}
+	 */
+	private void sortByCrowding(int from, int to) {
+		mergeSort(from, to, true);
+	}
+
+	/**
+	 * Sorts a range of {@link #order} with a stable bottom-up merge sort, by increasing makespan
+	 * then cost, or by decreasing crowding distance.
+	 *
+	 * @param from the start of the range
+	 * @param to the end of the range
+	 * @param byCrowding whether to sort by crowding distance
+	 */
+	private void mergeSort(int from, int to, boolean byCrowding) {
+		int[] source = order;
+		int[] target = scratch;
+		for (int width = 1; width < to - from; width <<= 1) {
+			for (int low = from; low < to; low += 2 * width) {
+				int mid = Math.min(low + width, to);
+				int high = Math.min(low + 2 * width, to);
+				int i = low;
+				int j = mid;
+				for (int k = low; k < high; k++) {
+					if (i < mid && (j >= high || !before(source[j], source[i], byCrowding))) {
+						target[k] = source[i++];
+					} else {
+						target[k] = source[j++];
+					}
+				}
+			}
+			int[] swap = source;
+			source = target;
+			target = swap;
+		}
+		if (source != order) {
+			System.arraycopy(source, from, order, from, to - from);
+		}
+	}
+
+	/**
+	 * Compares two chromosomes for {@link #mergeSort(int, int, boolean)}.
+	 *
+	 * @param a the first chromosome
+	 * @param b the second chromosome
+	 * @param byCrowding whether to compare the crowding distances
+	 * @return true if a sorts strictly before b
+	 */
+	private boolean before(int a, int b, boolean byCrowding) {
+		if (byCrowding) {
+			return crowding[a] > crowding[b];
+		}
+		return makespans[a] < makespans[b] || makespans[a] == makespans[b] && costs[a] < costs[b];
+	}
+
+	/**
+	 * Computes the hypervolume of the front of the parents: the area between the front and the
+	 * reference point.
+	 *
+	 * @return the hypervolume
+	 */
+	private double hypervolume() {
+		sort(size);
+		double volume = 0.0;
+		double previousCost = referenceCost;
+		for (int i = frontStart[0]; i < frontStart[1]; i++) {
+			int m = order[i];
+			if (makespans[m] < referenceMakespan && costs[m] < previousCost) {
+				volume += (referenceMakespan - makespans[m]) * (previousCost - costs[m]);
+				previousCost = costs[m];
+			}
+		}
+		return volume;
+	}
+
+	/**
+	 * Gets the Pareto front of the parents: their non-dominated allocations, by increasing
+	 * makespan, without duplicates.
+	 *
+	 * @return the front
+	 */
+	public GaParetoFront getFront() {
+		int fronts = sort(size);
+		int from = frontStart[0];
+		int to = fronts > 0 ? frontStart[1] : from;
+		int count = 0;
+		for (int i = from; i < to; i++) {
+			int m = order[i];
+			if (Double.isInfinite(makespans[m])) {
+				continue;
+			}
+			if (count > 0) {
+				int previous = order[from + count - 1];
+				if (makespans[previous] == makespans[m] && costs[previous] == costs[m]) {
+					continue;
+				}
+			}
+			order[from + count++] = m;
+		}
+		int[][] allocations = new int[count][];
+		double[] frontMakespans = new double[count];
+		double[] frontCosts = new double[count];
+		for (int i = 0; i < count; i++) {
+			int m = order[from + i];
+			allocations[i] = new int[population.getGeneCount()];
+			population.getChromosome(m, allocations[i]);
+			frontMakespans[i] = makespans[m];
+			frontCosts[i] = costs[m];
+		}
+		return new GaParetoFront(allocations, frontMakespans, frontCosts);
+	}
+
+	/**
+	 * Checks whether the run has converged.
+	 *
+	 * @return true if neither objective has improved for the last generations, or the generation
+	 *         cap is reached
+	 */
+	public boolean isConverged() {
+		int maxGenerations = config.getMaxGenerations();
+		return sameCount >= config.getStagnation() || maxGenerations > 0 && generations >= maxGenerations;
+	}
+
+	/**
+	 * Sets the deadline of an anytime run. It must be set before {@link #initialize(int[][])} to
+	 * bound the initial evaluation too.
+	 *
+	 * @param deadline the deadline
+	 * @pre deadline != null
+	 */
+	public void setDeadline(GaDeadline deadline) {
+		this.deadline = deadline;
+	}
+
+	/**
+	 * Sets the trace of the run.
+	 *
+	 * @param trace the trace, {@link GaTrace#DISABLED} by default
+	 * @pre trace != null
+	 */
+	public void setTrace(GaTrace trace) {
+		this.trace = trace;
+	}
+
+	/**
+	 * Gets the number of generations evolved.
+	 *
+	 * @return the generations
+	 */
+	public int getGenerations() {
+		return generations;
+	}
+
+}
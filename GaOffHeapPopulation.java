@@ -0,0 +1,153 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * GaOffHeapPopulation keeps all the genes in a direct buffer, i.e. in native memory that the
+ * garbage collector neither scans nor copies. Large populations then cost the collector a single
+ * small buffer object instead of a large int array.
+ * <p>
+ * The population is owned by whoever created it and must be released with {@link #release()}
+ * once the scheduling round is over; any access afterwards fails. Java 8 has no way to free a
+ * direct buffer explicitly, its native memory is only given back when the garbage collector
+ * reclaims the buffer object. Released buffers are therefore kept in a small pool and reused by
+ * the next population of the same size, so that a broker scheduling batch after batch of the
+ * same shape allocates its native memory once.
+ */
+public class GaOffHeapPopulation extends GaPopulation {
+
+	/** The largest number of released buffers kept for reuse. */
+	private static final int POOL_SIZE = 4;
+
+	/** The released buffers waiting to be reused, guarded by itself. */
+	private static final List<ByteBuffer> pool = new ArrayList<ByteBuffer>();
+
+	/** The buffer behind {@link #genes}, given back to the pool on release. */
+	private ByteBuffer buffer;
+
+	/** The genes of all the chromosomes, chromosome after chromosome, in native byte order. */
+	private IntBuffer genes;
+
+	/**
+	 * Creates a new population with every gene set to vm 0.
+	 *
+	 * @param size the number of chromosomes
+	 * @param geneCount the number of cloudlets
+	 * @param vmCount the number of vms
+	 * @pre size > 0
+	 * @pre geneCount >= 0
+	 * @pre vmCount > 0
+	 * @post $none
+	 */
+	public GaOffHeapPopulation(int size, int geneCount, int vmCount) {
+		super(size, geneCount, vmCount, Integer.MAX_VALUE / 4);
+		buffer = acquire(size * geneCount * 4);
+		genes = buffer.asIntBuffer();
+	}
+
+	/**
+	 * Takes a released buffer of the given capacity from the pool, cleared to zero, or allocates
+	 * a new one.
+	 *
+	 * @param capacity the capacity in bytes
+	 * @return a native-order buffer of zeros
+	 * @pre capacity >= 0
+	 * @post $result.capacity() == capacity
+	 */
+	private static ByteBuffer acquire(int capacity) {
+		ByteBuffer reused = null;
+		synchronized (pool) {
+			for (Iterator<ByteBuffer> it = pool.iterator(); it.hasNext();) {
+				ByteBuffer candidate = it.next();
+				if (candidate.capacity() == capacity) {
+					it.remove();
+					reused = candidate;
+					break;
+				}
+			}
+		}
+		if (reused == null) {
+			return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+		}
+		reused.clear();
+		while (reused.remaining() >= 8) {
+			reused.putLong(0L);
+		}
+		while (reused.hasRemaining()) {
+			reused.put((byte) 0);
+		}
+		reused.clear();
+		return reused;
+	}
+
+	@Override
+	public int get(int index) {
+		return genes.get(index);
+	}
+
+	@Override
+	public void set(int index, int vm) {
+		genes.put(index, vm);
+	}
+
+	@Override
+	public void copyChromosome(GaPopulation source, int from, int to) {
+		if (source instanceof GaOffHeapPopulation) {
+			IntBuffer src = ((GaOffHeapPopulation) source).genes.duplicate();
+			src.limit(from * geneCount + geneCount).position(from * geneCount);
+			IntBuffer dst = genes.duplicate();
+			dst.position(to * geneCount);
+			dst.put(src);
+		} else {
+			super.copyChromosome(source, from, to);
+		}
+	}
+
+	@Override
+	public void setChromosome(int chromosome, int[] vms) {
+		IntBuffer dst = genes.duplicate();
+		dst.position(chromosome * geneCount);
+		dst.put(vms, 0, geneCount);
+	}
+
+	@Override
+	public void getChromosome(int chromosome, int[] vms) {
+		IntBuffer src = genes.duplicate();
+		src.position(chromosome * geneCount);
+		src.get(vms, 0, geneCount);
+	}
+
+	/**
+	 * Gives the buffer back to the pool for the next population of the same size. When the pool
+	 * is full the buffer is dropped, and its native memory is given back when the small buffer
+	 * object is collected.
+	 */
+	@Override
+	public void release() {
+		if (buffer == null) {
+			return;
+		}
+		synchronized (pool) {
+			if (pool.size() == POOL_SIZE) {
+				pool.remove(0);
+			}
+			pool.add(buffer);
+		}
+		buffer = null;
+		genes = null;
+	}
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+/**
+ * GaPackedPopulation stores each gene in as few bits as a vm index needs, packed into long
+ * words. The width is ceil(log2(V)) rounded up to a power of two (1, 2, 4, 8, 16 or 32 bits), so
+ * a gene never straddles two words and fewer than 256 or 65536 vms give plain byte or short
+ * lanes. With 15 vms a gene takes 4 bits, an eighth of an int.
+ * <p>
+ * Every chromosome starts on a word boundary, which lets chromosome copies and
+ * {@link #swapRange(int, int, int, int)} work on whole words.
+ */
+public class GaPackedPopulation extends GaPopulation {
+
+	/** The genes, packed into words, lowest bits first. */
+	private final long[] words;
+
+	/** The number of bits of a gene. */
+	private final int bits;
+
+	/** The log2 of the number of genes per word. */
+	private final int shift;
+
+	/** The number of genes per word minus one. */
+	private final int lane;
+
+	/** The mask of the bits of one gene. */
+	private final long mask;
+
+	/** The number of genes between the starts of two chromosomes, padding included. */
+	private final int stride;
+
+	/**
+	 * Creates a new population with every gene set to vm 0.
+	 *
+	 * @param size the number of chromosomes
+	 * @param geneCount the number of cloudlets
+	 * @param vmCount the number of vms
+	 * @pre size > 0
+	 * @pre geneCount >= 0
+	 * @pre vmCount > 0
+	 * @post $none
+	 */
+	public GaPackedPopulation(int size, int geneCount, int vmCount) {
+		super(size, geneCount, vmCount, Integer.MAX_VALUE);
+		int need = 32 - Integer.numberOfLeadingZeros(Math.max(1, vmCount - 1));
+		int b = 1;
+		while (b < need) {
+			b <<= 1;
+		}
+		bits = b;
+		int genesPerWord = 64 / bits;
+		shift = Integer.numberOfTrailingZeros(genesPerWord);
+		lane = genesPerWord - 1;
+		mask = bits == 64 ? -1L : (1L << bits) - 1;
+		long padded = ((long) geneCount + lane) & ~lane;
+		if (padded * size > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("GaPackedPopulation: " + padded * size + " genes do not fit in one block");
+		}
+		stride = (int) padded;
+		words = new long[(stride * size) >>> shift];
+	}
+
+	@Override
+	public int get(int index) {
+		return (int) ((words[index >>> shift] >>> ((index & lane) * bits)) & mask);
+	}
+
+	@Override
+	public void set(int index, int vm) {
+		int w = index >>> shift;
+		int s = (index & lane) * bits;
+		words[w] = (words[w] & ~(mask << s)) | ((vm & mask) << s);
+	}
+
+	@Override
+	public int offset(int chromosome) {
+		return chromosome * stride;
+	}
+
+	@Override
+	public void copyChromosome(GaPopulation source, int from, int to) {
+		if (source instanceof GaPackedPopulation && ((GaPackedPopulation) source).bits == bits
+				&& source.getGeneCount() == geneCount) {
+			int perChromosome = stride >>> shift;
+			System.arraycopy(((GaPackedPopulation) source).words, from * perChromosome, words, to * perChromosome,
+					perChromosome);
+		} else {
+			super.copyChromosome(source, from, to);
+		}
+	}
+
+	/**
+	 * Swaps a range of genes between two chromosomes, a whole word at a time between the first
+	 * and the last word of the range.
+	 */
+	@Override
+	public void swapRange(int first, int second, int from, int to) {
+		int a = offset(first);
+		int b = offset(second);
+		int n = from;
+		for (; n < to && (n & lane) != 0; n++) {
+			swap(a + n, b + n);
+		}
+		for (; n + lane < to; n += lane + 1) {
+			int wa = (a + n) >>> shift;
+			int wb = (b + n) >>> shift;
+			long temp = words[wa];
+			words[wa] = words[wb];
+			words[wb] = temp;
+		}
+		for (; n < to; n++) {
+			swap(a + n, b + n);
+		}
+	}
+
+	/**
+	 * Swaps two genes.
+	 *
+	 * @param i the position of the first gene
+	 * @param j the position of the second gene
+	 */
+	private void swap(int i, int j) {
+		int temp = get(i);
+		set(i, get(j));
+		set(j, temp);
+	}
+
+	/**
+	 * Gets the number of bits of a gene.
+	 *
+	 * @return the bits
+	 */
+	public int getBits() {
+		return bits;
+	}
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation
+ *               of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009, The University of Melbourne, Australia
+ */
+
+
+package org.cloudbus.cloudsim.examples;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.cloudbus.cloudsim.GaEtc;
+import org.cloudbus.cloudsim.GaFitness;
+import org.cloudbus.cloudsim.GaLoadTracker;
+import org.cloudbus.cloudsim.GaPopulation;
+
+/**
+ * A benchmark of the parallel population evaluation of the broker's genetic
+ * algorithm: the time of a full evaluation of the population on the
+ * simulation thread and on the ForkJoin common pool, and the speedup.
+ *
+ * Only full evaluations run on the pool; the incremental updates after
+ * crossover and mutation stay on the simulation thread, so the speedup of a
+ * whole GA run is lower. To measure the speedup curve, run it once per
+ * thread count with -Djava.util.concurrent.ForkJoinPool.common.parallelism=N.
+ *
+ * Usage: GaParallelBenchmark [chromosomes] [cloudlets] [vms]
+ */
+public class GaParallelBenchmark {
+
+	/** The number of timed rounds of each evaluation. */
+	private static final int ROUNDS = 5;
+
+	/**
+	 * Creates main() to run this benchmark
+	 */
+	public static void main(String[] args) {
+		int cno = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+		int cloudlets = args.length > 1 ? Integer.parseInt(args[1]) : 100000;
+		int vms = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+
+		//same workload shape as CloudSimExample6
+		double[] lengths = new double[cloudlets];
+		for(int i=0;i<cloudlets;i++)
+			lengths[i]=1000+(2*i*10);
+		double[] mips = new double[vms];
+		for(int j=0;j<vms;j++)
+			mips[j]=1000+(2*j*10);
+		Random rand = new Random(1);
+		GaPopulation population = GaPopulation.create(cno, cloudlets, vms, GaPopulation.HEAP);
+		for(int m=0;m<cno;m++)
+		{
+			for(int n=0;n<cloudlets;n++)
+			{
+				population.setGene(m, n, rand.nextInt(vms));
+			}
+		}
+		GaFitness fitness = new GaFitness(GaEtc.create(lengths, mips));
+		GaLoadTracker sequential = new GaLoadTracker(fitness, cno, vms);
+		GaLoadTracker parallel = new GaLoadTracker(fitness, cno, vms);
+
+		System.out.println("GaParallelBenchmark: "+cno+" chromosomes, "+cloudlets+" cloudlets, "+vms+" vms, "
+				+ForkJoinPool.getCommonPoolParallelism()+" threads");
+		double one = time(sequential, population, false);
+		double many = time(parallel, population, true);
+
+		double[] expected = new double[cno];
+		double[] actual = new double[cno];
+		sequential.makespans(expected);
+		parallel.makespans(actual);
+		for(int m=0;m<cno;m++)
+		{
+			if(expected[m]!=actual[m])
+			{
+				throw new IllegalStateException("makespan mismatch for chromosome "+m);
+			}
+		}
+
+		System.out.println("sequential : "+format(one)+" ms");
+		System.out.println("parallel   : "+format(many)+" ms  ("+String.format("%.2f", one/many)+"x)");
+	}
+
+	/**
+	 * Times full evaluations of the population, after one untimed round.
+	 */
+	private static double time(GaLoadTracker loads, GaPopulation population, boolean parallel) {
+		double elapsed = 0;
+		for(int r=0;r<=ROUNDS;r++)
+		{
+			long start = System.nanoTime();
+			loads.evaluateAll(population, parallel);
+			if(r>0)
+				elapsed += System.nanoTime()-start;
+		}
+		return elapsed;
+	}
+
+	private static String format(double nanos) {
+		return String.format("%.3f", nanos/ROUNDS/1e6);
+	}
+}
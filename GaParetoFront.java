@@ -0,0 +1,144 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+/**
+ * GaParetoFront holds the allocations found by a {@link GaNsgaEngine} that no other allocation
+ * beats on both makespan and cost, ordered from the fastest to the cheapest. A policy picks the
+ * one to dispatch:
+ * <ul>
+ * <li>{@link #FASTEST}: the lowest makespan;
+ * <li>{@link #CHEAPEST}: the lowest cost;
+ * <li>{@link #KNEE}: the closest to the ideal point once both objectives are scaled to [0, 1],
+ * i.e. the best compromise;
+ * </ul>
+ * or {@link #pickWithinBudget(double)} takes the fastest allocation under a cost budget.
+ */
+public class GaParetoFront {
+
+	/** The policy picking the lowest makespan. */
+	public static final int FASTEST = 0;
+
+	/** The policy picking the lowest cost. */
+	public static final int CHEAPEST = 1;
+
+	/** The policy picking the best compromise. */
+	public static final int KNEE = 2;
+
+	/** The allocations, by increasing makespan. */
+	private final int[][] allocations;
+
+	/** The makespan of each allocation. */
+	private final double[] makespans;
+
+	/** The cost of each allocation. */
+	private final double[] costs;
+
+	/**
+	 * Creates a front.
+	 *
+	 * @param allocations the allocations, by increasing makespan and decreasing cost
+	 * @param makespans the makespan of each allocation
+	 * @param costs the cost of each allocation
+	 * @pre allocations.length > 0
+	 */
+	public GaParetoFront(int[][] allocations, double[] makespans, double[] costs) {
+		this.allocations = allocations;
+		this.makespans = makespans;
+		this.costs = costs;
+	}
+
+	/**
+	 * Picks an allocation.
+	 *
+	 * @param policy {@link #FASTEST}, {@link #CHEAPEST} or {@link #KNEE}
+	 * @return the index of the allocation
+	 */
+	public int pick(int policy) {
+		int last = allocations.length - 1;
+		switch (policy) {
+			case FASTEST:
+				return 0;
+			case CHEAPEST:
+				return last;
+			case KNEE:
+				double makespanRange = makespans[last] - makespans[0];
+				double costRange = costs[0] - costs[last];
+				int knee = 0;
+				double min = Double.MAX_VALUE;
+				for (int i = 0; i <= last; i++) {
+					double m = makespanRange > 0 ? (makespans[i] - makespans[0]) / makespanRange : 0.0;
+					double c = costRange > 0 ? (costs[i] - costs[last]) / costRange : 0.0;
+					double distance = m * m + c * c;
+					if (distance < min) {
+						min = distance;
+						knee = i;
+					}
+				}
+				return knee;
+			default:
+				throw new IllegalArgumentException("GaParetoFront: unknown policy " + policy);
+		}
+	}
+
+	/**
+	 * Picks the fastest allocation whose cost is within a budget, or the cheapest one if none is.
+	 *
+	 * @param budget the cost budget
+	 * @return the index of the allocation
+	 */
+	public int pickWithinBudget(double budget) {
+		for (int i = 0; i < allocations.length; i++) {
+			if (costs[i] <= budget) {
+				return i;
+			}
+		}
+		return allocations.length - 1;
+	}
+
+	/**
+	 * Gets the number of allocations of the front.
+	 *
+	 * @return the size
+	 */
+	public int size() {
+		return allocations.length;
+	}
+
+	/**
+	 * Gets an allocation. The array is owned by the front.
+	 *
+	 * @param i the index of the allocation
+	 * @return the vm index of each cloudlet
+	 */
+	public int[] getAllocation(int i) {
+		return allocations[i];
+	}
+
+	/**
+	 * Gets the makespan of an allocation.
+	 *
+	 * @param i the index of the allocation
+	 * @return the makespan
+	 */
+	public double getMakespan(int i) {
+		return makespans[i];
+	}
+
+	/**
+	 * Gets the cost of an allocation.
+	 *
+	 * @param i the index of the allocation
+	 * @return the cost
+	 */
+	public double getCost(int i) {
+		return costs[i];
+	}
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * GaPointCrossover cuts both parents at the same k random points and exchanges every other
+ * segment, starting with the one after the first cut: one-point crossover exchanges the tail,
+ * two-point crossover the middle. The segments are swapped with
+ * {@link GaPopulation#swapRange(int, int, int, int)}, whole words at a time in a packed
+ * population.
+ */
+public class GaPointCrossover extends GaCrossover {
+
+	/** The number of cut points. */
+	private final int points;
+
+	/**
+	 * Creates a k-point crossover.
+	 *
+	 * @param points the number of cut points
+	 * @pre points > 0
+	 */
+	public GaPointCrossover(int points) {
+		if (points <= 0) {
+			throw new IllegalArgumentException("GaPointCrossover: invalid number of points " + points);
+		}
+		this.points = points;
+	}
+
+	@Override
+	public void cross(GaPopulation population, GaLoadTracker loads, int first, int second, SplittableRandom random) {
+		int cloudletCount = population.getGeneCount();
+		if (cloudletCount < 2) {
+			return;
+		}
+		// the cuts fall between genes, so each segment holds at least one gene
+		int[] cuts = new int[points];
+		for (int k = 0; k < points; k++) {
+			cuts[k] = 1 + random.nextInt(cloudletCount - 1);
+		}
+		Arrays.sort(cuts);
+		for (int k = 0; k < points; k += 2) {
+			int to = k + 1 < points ? cuts[k + 1] : cloudletCount;
+			if (cuts[k] < to) {
+				swapRange(population, loads, first, second, cuts[k], to);
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of cut points.
+	 *
+	 * @return the number of cut points
+	 */
+	public int getPoints() {
+		return points;
+	}
+
+	@Override
+	public String getName() {
+		return "point:" + points;
+	}
+
+}
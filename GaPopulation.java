@@ -0,0 +1,246 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+/**
+ * GaPopulation stores the chromosomes of the genetic algorithm used by the
+ * {@link DatacenterBroker}. Each chromosome has one gene per cloudlet and the value of a gene is
+ * the index of the vm (in the broker's vms created list) that the cloudlet is allocated to.
+ * <p>
+ * The genes are addressed as one flat sequence, chromosome after chromosome, so the population is
+ * sized from the actual number of cloudlets and vms instead of fixed bounds. Where the genes are
+ * kept depends on the subclass: {@link GaHeapPopulation} uses a Java array,
+ * {@link GaOffHeapPopulation} native memory outside the garbage collected heap and
+ * {@link GaPackedPopulation} only as many bits per gene as the vm count needs.
+ */
+public abstract class GaPopulation {
+
+	/** The storage of {@link GaHeapPopulation}. */
+	public static final int HEAP = 0;
+
+	/** The storage of {@link GaOffHeapPopulation}. */
+	public static final int OFF_HEAP = 1;
+
+	/** The storage of {@link GaPackedPopulation}. */
+	public static final int PACKED = 2;
+
+	/** The number of chromosomes. */
+	protected final int size;
+
+	/** The number of genes per chromosome, i.e. the number of cloudlets. */
+	protected final int geneCount;
+
+	/** The number of vms a gene can point to. */
+	protected final int vmCount;
+
+	/**
+	 * Creates a population with the given storage.
+	 *
+	 * @param size the number of chromosomes
+	 * @param geneCount the number of cloudlets
+	 * @param vmCount the number of vms
+	 * @param storage {@link #HEAP}, {@link #OFF_HEAP} or {@link #PACKED}
+	 * @return the population, with every gene set to vm 0
+	 */
+	public static GaPopulation create(int size, int geneCount, int vmCount, int storage) {
+		switch (storage) {
+			case OFF_HEAP:
+				return new GaOffHeapPopulation(size, geneCount, vmCount);
+			case PACKED:
+				return new GaPackedPopulation(size, geneCount, vmCount);
+			default:
+				return new GaHeapPopulation(size, geneCount, vmCount);
+		}
+	}
+
+	/**
+	 * Checks the shape of a new population.
+	 *
+	 * @param size the number of chromosomes
+	 * @param geneCount the number of cloudlets
+	 * @param vmCount the number of vms
+	 * @param maxGenes the most genes the storage can address
+	 * @pre size > 0
+	 * @pre geneCount >= 0
+	 * @pre vmCount > 0
+	 * @post $none
+	 */
+	protected GaPopulation(int size, int geneCount, int vmCount, long maxGenes) {
+		if (size <= 0 || geneCount < 0 || vmCount <= 0) {
+			throw new IllegalArgumentException("GaPopulation: invalid size " + size + "x" + geneCount
+					+ " over " + vmCount + " vms");
+		}
+		long total = (long) size * geneCount;
+		if (total > maxGenes) {
+			throw new IllegalArgumentException("GaPopulation: " + total + " genes do not fit in one block");
+		}
+		this.size = size;
+		this.geneCount = geneCount;
+		this.vmCount = vmCount;
+	}
+
+	/**
+	 * Gets the vm index of a gene by its position in the flat sequence.
+	 *
+	 * @param index the position, see {@link #offset(int)}
+	 * @return the vm index
+	 */
+	public abstract int get(int index);
+
+	/**
+	 * Sets the vm index of a gene by its position in the flat sequence.
+	 *
+	 * @param index the position, see {@link #offset(int)}
+	 * @param vm the vm index
+	 */
+	public abstract void set(int index, int vm);
+
+	/**
+	 * Gets the vm index of a gene.
+	 *
+	 * @param chromosome the chromosome
+	 * @param gene the gene, i.e. the cloudlet index
+	 * @return the vm index
+	 */
+	public int getGene(int chromosome, int gene) {
+		return get(offset(chromosome) + gene);
+	}
+
+	/**
+	 * Sets the vm index of a gene.
+	 *
+	 * @param chromosome the chromosome
+	 * @param gene the gene, i.e. the cloudlet index
+	 * @param vm the vm index
+	 */
+	public void setGene(int chromosome, int gene, int vm) {
+		set(offset(chromosome) + gene, vm);
+	}
+
+	/**
+	 * Copies a chromosome of another population (or of this one) over a chromosome of this
+	 * population.
+	 *
+	 * @param source the population to copy from
+	 * @param from the chromosome in the source population
+	 * @param to the chromosome in this population
+	 * @pre source.getGeneCount() == getGeneCount()
+	 */
+	public void copyChromosome(GaPopulation source, int from, int to) {
+		int src = source.offset(from);
+		int dst = offset(to);
+		for (int n = 0; n < geneCount; n++) {
+			set(dst + n, source.get(src + n));
+		}
+	}
+
+	/**
+	 * Swaps a range of genes between two chromosomes of this population, which is the bulk step
+	 * of a crossover.
+	 *
+	 * @param first the first chromosome
+	 * @param second the second chromosome
+	 * @param from the first gene of the range
+	 * @param to the gene after the last one of the range
+	 */
+	public void swapRange(int first, int second, int from, int to) {
+		int a = offset(first);
+		int b = offset(second);
+		for (int n = from; n < to; n++) {
+			int temp = get(a + n);
+			set(a + n, get(b + n));
+			set(b + n, temp);
+		}
+	}
+
+	/**
+	 * Sets all the genes of a chromosome.
+	 *
+	 * @param chromosome the chromosome
+	 * @param vms the vm index of each gene
+	 * @pre vms.length == getGeneCount()
+	 */
+	public void setChromosome(int chromosome, int[] vms) {
+		int dst = offset(chromosome);
+		for (int n = 0; n < geneCount; n++) {
+			set(dst + n, vms[n]);
+		}
+	}
+
+	/**
+	 * Gets all the genes of a chromosome.
+	 *
+	 * @param chromosome the chromosome
+	 * @param vms the array receiving the vm index of each gene
+	 * @pre vms.length >= getGeneCount()
+	 */
+	public void getChromosome(int chromosome, int[] vms) {
+		int src = offset(chromosome);
+		for (int n = 0; n < geneCount; n++) {
+			vms[n] = get(src + n);
+		}
+	}
+
+	/**
+	 * Copies all the chromosomes of another population of the same shape.
+	 *
+	 * @param source the population to copy from
+	 * @pre source.size() == size()
+	 */
+	public void copyFrom(GaPopulation source) {
+		for (int m = 0; m < size; m++) {
+			copyChromosome(source, m, m);
+		}
+	}
+
+	/**
+	 * Releases the storage of the population. The population must not be used afterwards.
+	 */
+	public void release() {
+	}
+
+	/**
+	 * Gets the position of the first gene of a chromosome in the flat sequence. The genes of a
+	 * chromosome are contiguous, but a storage may pad between chromosomes.
+	 *
+	 * @param chromosome the chromosome
+	 * @return the offset
+	 */
+	public int offset(int chromosome) {
+		return chromosome * geneCount;
+	}
+
+	/**
+	 * Gets the number of chromosomes.
+	 *
+	 * @return the size
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the number of genes per chromosome.
+	 *
+	 * @return the gene count
+	 */
+	public int getGeneCount() {
+		return geneCount;
+	}
+
+	/**
+	 * Gets the number of vms.
+	 *
+	 * @return the vm count
+	 */
+	public int getVmCount() {
+		return vmCount;
+	}
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.SplittableRandom;
+
+/**
+ * GaRankSelection gives each chromosome a weight that falls linearly with its rank, from the
+ * selection pressure for the best chromosome down to 2 - pressure for the worst, then picks the
+ * parents by stochastic universal sampling. Chromosomes with equal makespans share the average of
+ * their ranks.
+ * <p>
+ * The ranks come from one sort of the chromosome indexes by makespan, so a selection costs
+ * O(P log P). Infinite makespans rank last and tie with each other.
+ */
+public class GaRankSelection extends GaSelection {
+
+	/** The default selection pressure. */
+	public static final double DEFAULT_PRESSURE = 1.5;
+
+	/** The expected number of copies of the best chromosome, between 1 and 2. */
+	private final double pressure;
+
+	/**
+	 * Creates a linear rank selection with the default pressure.
+	 */
+	public GaRankSelection() {
+		this(DEFAULT_PRESSURE);
+	}
+
+	/**
+	 * Creates a linear rank selection.
+	 *
+	 * @param pressure the expected number of copies of the best chromosome
+	 * @pre pressure >= 1 && pressure <= 2
+	 */
+	public GaRankSelection(double pressure) {
+		if (!(pressure >= 1.0 && pressure <= 2.0)) {
+			throw new IllegalArgumentException("GaRankSelection: the pressure " + pressure + " is not in [1, 2]");
+		}
+		this.pressure = pressure;
+	}
+
+	@Override
+	public void select(double[] makespans, SplittableRandom random, int[] selected) {
+		int size = makespans.length;
+		// infinite makespans sort after every finite one, and equal to each other
+		int[] order = GaSort.order(makespans, false);
+		double[] weights = new double[size];
+		int first = 0;
+		while (first < size) {
+			int last = first;
+			while (last + 1 < size && Double.compare(makespans[order[last + 1]], makespans[order[first]]) == 0) {
+				last++;
+			}
+			// rank 0 is the worst chromosome, size - 1 the best
+			double rank = size - 1 - (first + last) / 2.0;
+			double weight = size == 1 ? 1.0 : 2.0 - pressure + 2.0 * (pressure - 1.0) * rank / (size - 1);
+			for (int i = first; i <= last; i++) {
+				weights[order[i]] = weight;
+			}
+			first = last + 1;
+		}
+		sample(weights, random, selected);
+	}
+
+	/**
+	 * Gets the selection pressure.
+	 *
+	 * @return the expected number of copies of the best chromosome
+	 */
+	public double getPressure() {
+		return pressure;
+	}
+
+	@Override
+	public String getName() {
+		return "rank:" + pressure;
+	}
+
+}
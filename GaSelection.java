@@ -0,0 +1,106 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.SplittableRandom;
+
+/**
+ * GaSelection picks the parents of the next generation of a {@link GaEngine} from the makespans
+ * of the current population, lower being better. Only the rank selection sorts the whole
+ * population:
+ * <ul>
+ * <li>{@link GaTruncationSelection}: uniform among the better half, found by partitioning;
+ * <li>{@link GaTournamentSelection}: the best of k chromosomes drawn at random;
+ * <li>{@link GaRankSelection}: linear ranking, sampled universally;
+ * <li>{@link GaUniversalSampling}: stochastic universal sampling on the inverse makespan.
+ * </ul>
+ * A strategy keeps no state between calls, so one instance can serve several islands.
+ */
+public abstract class GaSelection {
+
+	/**
+	 * Creates a strategy from its name, as returned by {@link #getName()}: <code>truncation</code>,
+	 * <code>tournament</code> or <code>tournament:k</code>, <code>rank</code> or
+	 * <code>rank:pressure</code>, and <code>sus</code>.
+	 *
+	 * @param name the name of the strategy
+	 * @return the strategy
+	 * @throws IllegalArgumentException if the name is unknown
+	 */
+	public static GaSelection forName(String name) {
+		String kind = name.trim();
+		String parameter = null;
+		int colon = kind.indexOf(':');
+		if (colon >= 0) {
+			parameter = kind.substring(colon + 1).trim();
+			kind = kind.substring(0, colon).trim();
+		}
+		if (kind.equals("truncation") && parameter == null) {
+			return new GaTruncationSelection();
+		} else if (kind.equals("tournament")) {
+			return parameter == null ? new GaTournamentSelection() : new GaTournamentSelection(Integer.parseInt(parameter));
+		} else if (kind.equals("rank")) {
+			return parameter == null ? new GaRankSelection() : new GaRankSelection(Double.parseDouble(parameter));
+		} else if (kind.equals("sus") && parameter == null) {
+			return new GaUniversalSampling();
+		}
+		throw new IllegalArgumentException("GaSelection: unknown strategy " + name);
+	}
+
+	/**
+	 * Selects as many parents as there are slots in the array.
+	 *
+	 * @param makespans the makespans of the population
+	 * @param random the random generator
+	 * @param selected receives the selected chromosomes
+	 * @pre makespans.length > 0
+	 */
+	public abstract void select(double[] makespans, SplittableRandom random, int[] selected);
+
+	/**
+	 * Gets the name of this strategy, which {@link #forName(String)} turns back into an equal
+	 * strategy.
+	 *
+	 * @return the name
+	 */
+	public abstract String getName();
+
+	@Override
+	public String toString() {
+		return getName();
+	}
+
+	/**
+	 * Fills the slots with stochastic universal sampling: one random offset, then equally spaced
+	 * pointers over the cumulated weights, in a single pass.
+	 *
+	 * @param weights the non negative weight of each chromosome, not all zero
+	 * @param random the random generator
+	 * @param selected receives the selected chromosomes
+	 */
+	static void sample(double[] weights, SplittableRandom random, int[] selected) {
+		double total = 0.0;
+		for (double weight : weights) {
+			total += weight;
+		}
+		double step = total / selected.length;
+		double pointer = random.nextDouble() * step;
+		double cumulated = weights[0];
+		int m = 0;
+		for (int i = 0; i < selected.length; i++) {
+			while (pointer >= cumulated && m < weights.length - 1) {
+				m++;
+				cumulated += weights[m];
+			}
+			selected[i] = m;
+			pointer += step;
+		}
+	}
+
+}
@@ -0,0 +1,279 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GaSolutionCache keeps the best allocations of past batches so the genetic algorithm can warm
+ * start on a batch that looks like one it has already scheduled. A batch is fingerprinted by the
+ * histogram of its cloudlet lengths, in power of two buckets, and its vm mips in decreasing
+ * order. Two batches are similar when they have as many vms, their histograms differ by at most
+ * the tolerance in total variation and their mips by at most the tolerance relative to the sum.
+ * <p>
+ * Allocations are stored by rank rather than by id: the cloudlets by increasing length and the
+ * vms by decreasing mips. A cached allocation is remapped to a new batch by giving each of its
+ * cloudlets the vm of the same mips rank as the cached cloudlet at the same length quantile, so
+ * the batches need not have as many cloudlets.
+ * <p>
+ * The cache holds at most its capacity of fingerprints, each with its last few allocations, and
+ * evicts the least recently used fingerprint. It is thread safe, so brokers may share one.
+ */
+public class GaSolutionCache {
+
+	/** The default number of fingerprints kept. */
+	public static final int DEFAULT_CAPACITY = 16;
+
+	/** The default tolerance of the similarity test. */
+	public static final double DEFAULT_TOLERANCE = 0.1;
+
+	/** The number of allocations kept per fingerprint. */
+	public static final int ALLOCATIONS = 4;
+
+	/** The number of buckets of the length histogram, one per power of two. */
+	private static final int BUCKETS = 64;
+
+	/** The most fingerprints kept. */
+	private final int capacity;
+
+	/** The most a similar batch may differ from a cached one. */
+	private final double tolerance;
+
+	/** The entries, least recently used first. */
+	private final LinkedHashMap<Long, Batch> entries;
+
+	/** The key of the next entry. */
+	private long nextKey;
+
+	/**
+	 * Creates a cache with the default tolerance.
+	 *
+	 * @param capacity the most fingerprints kept
+	 * @pre capacity > 0
+	 * @post $none
+	 */
+	public GaSolutionCache(int capacity) {
+		this(capacity, DEFAULT_TOLERANCE);
+	}
+
+	/**
+	 * Creates a cache.
+	 *
+	 * @param capacity the most fingerprints kept
+	 * @param tolerance the most a similar batch may differ from a cached one, between 0 and 1
+	 * @pre capacity > 0
+	 * @pre tolerance >= 0
+	 * @post $none
+	 */
+	public GaSolutionCache(final int capacity, double tolerance) {
+		if (capacity <= 0 || tolerance < 0) {
+			throw new IllegalArgumentException("GaSolutionCache: invalid capacity " + capacity + " or tolerance "
+					+ tolerance);
+		}
+		this.capacity = capacity;
+		this.tolerance = tolerance;
+		entries = new LinkedHashMap<Long, Batch>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Batch> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * Gets the cached allocations of the most similar batch, remapped to a new batch.
+	 *
+	 * @param lengths the length of each cloudlet of the new batch
+	 * @param mips the mips of each vm of the new batch
+	 * @return the allocations, most recent first, none if no cached batch is similar
+	 */
+	public synchronized int[][] get(double[] lengths, double[] mips) {
+		if (lengths.length == 0) {
+			return new int[0][];
+		}
+		double[] histogram = histogram(lengths);
+		double[] sortedMips = sortedMips(mips);
+		Long key = find(histogram, sortedMips);
+		if (key == null) {
+			return new int[0][];
+		}
+		// touch the entry, so it is the last to be evicted
+		Batch entry = entries.get(key);
+		int[] cloudletOrder = GaSort.order(lengths, false);
+		int[] vmOrder = GaSort.order(mips, true);
+		int[][] allocations = new int[entry.allocations.size()][];
+		for (int a = 0; a < allocations.length; a++) {
+			int[] ranks = entry.allocations.get(a);
+			int[] genes = new int[lengths.length];
+			for (int i = 0; i < genes.length; i++) {
+				int cached = (int) ((long) i * ranks.length / genes.length);
+				genes[cloudletOrder[i]] = vmOrder[ranks[cached]];
+			}
+			allocations[a] = genes;
+		}
+		return allocations;
+	}
+
+	/**
+	 * Stores the allocation of a batch. It joins the allocations of a similar cached batch,
+	 * whose fingerprint it then replaces, or starts a new entry.
+	 *
+	 * @param lengths the length of each cloudlet
+	 * @param mips the mips of each vm
+	 * @param genes the allocation, a vm index per cloudlet
+	 */
+	public synchronized void put(double[] lengths, double[] mips, int[] genes) {
+		if (lengths.length == 0) {
+			return;
+		}
+		double[] histogram = histogram(lengths);
+		double[] sortedMips = sortedMips(mips);
+		int[] cloudletOrder = GaSort.order(lengths, false);
+		int[] vmOrder = GaSort.order(mips, true);
+		int[] vmRank = new int[mips.length];
+		for (int q = 0; q < vmOrder.length; q++) {
+			vmRank[vmOrder[q]] = q;
+		}
+		int[] ranks = new int[genes.length];
+		for (int i = 0; i < ranks.length; i++) {
+			ranks[i] = vmRank[genes[cloudletOrder[i]]];
+		}
+
+		Long key = find(histogram, sortedMips);
+		Batch entry = key == null ? null : entries.get(key);
+		if (entry == null) {
+			entry = new Batch();
+			entries.put(nextKey++, entry);
+		}
+		entry.histogram = histogram;
+		entry.mips = sortedMips;
+		entry.allocations.add(0, ranks);
+		if (entry.allocations.size() > ALLOCATIONS) {
+			entry.allocations.remove(ALLOCATIONS);
+		}
+	}
+
+	/**
+	 * Gets the number of fingerprints cached.
+	 *
+	 * @return the size
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Gets the most fingerprints kept.
+	 *
+	 * @return the capacity
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Empties the cache.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	/**
+	 * Finds the cached batch most similar to a fingerprint, without touching it.
+	 *
+	 * @param histogram the length histogram
+	 * @param sortedMips the mips in decreasing order
+	 * @return the key of the entry, or null if none is similar
+	 */
+	private Long find(double[] histogram, double[] sortedMips) {
+		Long found = null;
+		double closest = Double.MAX_VALUE;
+		Iterator<Map.Entry<Long, Batch>> iterator = entries.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<Long, Batch> cached = iterator.next();
+			Batch entry = cached.getValue();
+			if (entry.mips.length != sortedMips.length) {
+				continue;
+			}
+			double lengthDistance = 0;
+			for (int b = 0; b < BUCKETS; b++) {
+				lengthDistance += Math.abs(histogram[b] - entry.histogram[b]);
+			}
+			lengthDistance /= 2;
+			double mipsDistance = 0;
+			double mipsTotal = 0;
+			for (int q = 0; q < sortedMips.length; q++) {
+				mipsDistance += Math.abs(sortedMips[q] - entry.mips[q]);
+				mipsTotal += entry.mips[q];
+			}
+			mipsDistance = mipsTotal > 0 ? mipsDistance / mipsTotal : 0;
+			double distance = Math.max(lengthDistance, mipsDistance);
+			if (distance <= tolerance && distance < closest) {
+				closest = distance;
+				found = cached.getKey();
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Computes the share of the cloudlets in each power of two bucket of length.
+	 *
+	 * @param lengths the length of each cloudlet
+	 * @return the histogram
+	 */
+	private static double[] histogram(double[] lengths) {
+		double[] histogram = new double[BUCKETS];
+		for (double length : lengths) {
+			int bucket = length < 1 ? 0 : Math.min(BUCKETS - 1, Math.getExponent(length) + 1);
+			histogram[bucket] += 1.0 / lengths.length;
+		}
+		return histogram;
+	}
+
+	/**
+	 * Sorts a copy of the mips in decreasing order.
+	 *
+	 * @param mips the mips of each vm
+	 * @return the sorted mips
+	 */
+	private static double[] sortedMips(double[] mips) {
+		double[] sorted = mips.clone();
+		Arrays.sort(sorted);
+		for (int i = 0, j = sorted.length - 1; i < j; i++, j--) {
+			double swap = sorted[i];
+			sorted[i] = sorted[j];
+			sorted[j] = swap;
+		}
+		return sorted;
+	}
+
+	/**
+	 * Batch is the fingerprint of the last batch stored under it, with the rank allocations of
+	 * the last similar batches.
+	 */
+	private static final class Batch {
+
+		double[] histogram;
+
+		double[] mips;
+
+		final List<int[]> allocations = new ArrayList<int[]>();
+
+	}
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+/**
+ * GaSort orders the indices of a primitive key array, e.g. the cloudlets by length or the vms by
+ * mips, without boxing. Keys of equal value keep the order of their indices, so a descending
+ * order picks the first of several longest cloudlets first, as the linear scans of the broker
+ * did.
+ * <p>
+ * The sort is a least significant digit radix sort on the 64 bits of the keys, a byte per pass.
+ * One pass counts all the byte histograms, and the passes where every key has the same byte are
+ * skipped, so cloudlet lengths below 2<sup>24</sup> take three passes. A sort costs O(n) with a
+ * long and an int array of scratch space; short arrays are sorted by insertion instead.
+ * Doubles are mapped to longs in the same order, negative values and infinities included, NaN
+ * last.
+ */
+public final class GaSort {
+
+	/** The length below which insertion sort is used. */
+	private static final int INSERTION_THRESHOLD = 32;
+
+	/**
+	 * The class cannot be instantiated.
+	 */
+	private GaSort() {
+	}
+
+	/**
+	 * Orders the indices of long keys.
+	 *
+	 * @param keys the keys
+	 * @param descending whether the largest key comes first
+	 * @return the indices in key order, ties in index order
+	 */
+	public static int[] order(long[] keys, boolean descending) {
+		long[] sortable = new long[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			// flipping the sign bit makes the unsigned order the signed one
+			sortable[i] = keys[i] ^ Long.MIN_VALUE;
+		}
+		return sort(sortable, descending);
+	}
+
+	/**
+	 * Orders the indices of double keys.
+	 *
+	 * @param keys the keys
+	 * @param descending whether the largest key comes first
+	 * @return the indices in key order, ties in index order
+	 */
+	public static int[] order(double[] keys, boolean descending) {
+		long[] sortable = new long[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			long bits = Double.doubleToLongBits(keys[i]);
+			// negative values have all their bits flipped, positive ones their sign bit
+			sortable[i] = bits ^ (bits >> 63 | Long.MIN_VALUE);
+		}
+		return sort(sortable, descending);
+	}
+
+	/**
+	 * Groups indices by the group each one belongs to, in one pass, e.g. the cloudlets by the vm
+	 * of their gene. Within a group the indices keep the order they are given in, so grouping an
+	 * {@link #order(long[], boolean)} of the cloudlet lengths yields every vm's queue already
+	 * sorted.
+	 *
+	 * @param groups the group of each index
+	 * @param groupCount the number of groups
+	 * @param order the indices, in the order wanted within each group
+	 * @return the indices of each group
+	 * @pre 0 <= groups[i] < groupCount
+	 */
+	public static int[][] group(int[] groups, int groupCount, int[] order) {
+		int[] size = new int[groupCount];
+		for (int group : groups) {
+			size[group]++;
+		}
+		int[][] members = new int[groupCount][];
+		for (int g = 0; g < groupCount; g++) {
+			members[g] = new int[size[g]];
+			size[g] = 0;
+		}
+		for (int i : order) {
+			int group = groups[i];
+			members[group][size[group]++] = i;
+		}
+		return members;
+	}
+
+	/**
+	 * Orders the indices of keys compared as unsigned longs. The keys are overwritten.
+	 *
+	 * @param keys the keys
+	 * @param descending whether the largest key comes first
+	 * @return the indices
+	 */
+	private static int[] sort(long[] keys, boolean descending) {
+		int n = keys.length;
+		int[] order = new int[n];
+		for (int i = 0; i < n; i++) {
+			order[i] = i;
+			if (descending) {
+				keys[i] = ~keys[i];
+			}
+		}
+		if (n < INSERTION_THRESHOLD) {
+			insertion(keys, order);
+			return order;
+		}
+
+		int[][] counts = new int[8][256];
+		for (long key : keys) {
+			for (int pass = 0; pass < 8; pass++) {
+				counts[pass][(int) (key >>> (8 * pass)) & 0xff]++;
+			}
+		}
+		long[] otherKeys = new long[n];
+		int[] otherOrder = new int[n];
+		for (int pass = 0; pass < 8; pass++) {
+			int[] count = counts[pass];
+			if (count[(int) (keys[0] >>> (8 * pass)) & 0xff] == n) {
+				// every key has the same byte here
+				continue;
+			}
+			int start = 0;
+			for (int b = 0; b < 256; b++) {
+				int c = count[b];
+				count[b] = start;
+				start += c;
+			}
+			for (int i = 0; i < n; i++) {
+				int position = count[(int) (keys[i] >>> (8 * pass)) & 0xff]++;
+				otherKeys[position] = keys[i];
+				otherOrder[position] = order[i];
+			}
+			long[] swapKeys = keys;
+			keys = otherKeys;
+			otherKeys = swapKeys;
+			int[] swapOrder = order;
+			order = otherOrder;
+			otherOrder = swapOrder;
+		}
+		return order;
+	}
+
+	/**
+	 * Sorts short arrays by insertion, stable.
+	 *
+	 * @param keys the keys, compared as unsigned longs
+	 * @param order the indices, moved with their keys
+	 */
+	private static void insertion(long[] keys, int[] order) {
+		for (int i = 1; i < keys.length; i++) {
+			long key = keys[i];
+			int index = order[i];
+			int j = i - 1;
+			while (j >= 0 && Long.compareUnsigned(keys[j], key) > 0) {
+				keys[j + 1] = keys[j];
+				order[j + 1] = order[j];
+				j--;
+			}
+			keys[j + 1] = key;
+			order[j + 1] = index;
+		}
+	}
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.SplittableRandom;
+
+/**
+ * GaTournamentSelection picks each parent as the best of k chromosomes drawn at random, with
+ * replacement. A larger k raises the selection pressure. It costs O(k) per parent.
+ */
+public class GaTournamentSelection extends GaSelection {
+
+	/** The default tournament size. */
+	public static final int DEFAULT_SIZE = 2;
+
+	/** The number of chromosomes of each tournament. */
+	private final int size;
+
+	/**
+	 * Creates a binary tournament selection.
+	 */
+	public GaTournamentSelection() {
+		this(DEFAULT_SIZE);
+	}
+
+	/**
+	 * Creates a tournament selection.
+	 *
+	 * @param size the number of chromosomes of each tournament
+	 * @pre size > 0
+	 */
+	public GaTournamentSelection(int size) {
+		if (size <= 0) {
+			throw new IllegalArgumentException("GaTournamentSelection: invalid tournament size " + size);
+		}
+		this.size = size;
+	}
+
+	@Override
+	public void select(double[] makespans, SplittableRandom random, int[] selected) {
+		for (int i = 0; i < selected.length; i++) {
+			int winner = random.nextInt(makespans.length);
+			for (int k = 1; k < size; k++) {
+				int challenger = random.nextInt(makespans.length);
+				if (makespans[challenger] < makespans[winner]) {
+					winner = challenger;
+				}
+			}
+			selected[i] = winner;
+		}
+	}
+
+	/**
+	 * Gets the tournament size.
+	 *
+	 * @return the number of chromosomes of each tournament
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	@Override
+	public String getName() {
+		return "tournament:" + size;
+	}
+
+}
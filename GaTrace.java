@@ -0,0 +1,257 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GaTrace is the level-gated trace of the genetic algorithm. The levels are:
+ * <ul>
+ * <li>{@link #OFF}: nothing, the default;
+ * <li>{@link #SUMMARY}: one line per generation with the best, mean and worst makespan and the
+ * diversity of the population;
+ * <li>{@link #DETAIL}: also the whole populations, the selected parents and the per cloudlet and
+ * per vm tables of the broker, only for small batches.
+ * </ul>
+ * Callers test {@link #isEnabled(int)} before building a line, so a disabled trace costs one
+ * comparison. The lines go through a bounded queue to a daemon thread writing them to a buffered
+ * writer, flushed whenever the queue runs empty; a full queue makes the producers wait rather
+ * than grow the heap. One trace can be shared by several islands.
+ */
+public class GaTrace {
+
+	/** The level tracing nothing. */
+	public static final int OFF = 0;
+
+	/** The level tracing one line per generation. */
+	public static final int SUMMARY = 1;
+
+	/** The level tracing the populations too. */
+	public static final int DETAIL = 2;
+
+	/** The trace tracing nothing, without a thread. */
+	public static final GaTrace DISABLED = new GaTrace(OFF, null);
+
+	/** The number of lines the queue holds. */
+	private static final int CAPACITY = 4096;
+
+	/** The end of the trace, in the queue. */
+	private static final Object CLOSE = new Object();
+
+	/** The highest level traced. */
+	private final int level;
+
+	/** The lines waiting to be written, flush and close requests. */
+	private final BlockingQueue<Object> queue;
+
+	/** The thread writing the lines, or null if the trace is off. */
+	private final Thread writer;
+
+	/** Whether the trace is closed, after which the lines are dropped. */
+	private volatile boolean closed;
+
+	/** The first write failure, after which the lines are dropped. */
+	private volatile IOException failure;
+
+	/**
+	 * Creates a trace to the standard output.
+	 *
+	 * @param level the highest level traced
+	 * @return the trace
+	 */
+	public static GaTrace toStandardOutput(int level) {
+		return new GaTrace(level, new OutputStreamWriter(System.out));
+	}
+
+	/**
+	 * Creates a trace. The writer is flushed but not closed by {@link #close()}.
+	 *
+	 * @param level the highest level traced, {@link #OFF}, {@link #SUMMARY} or {@link #DETAIL}
+	 * @param out the writer, may be null if the level is {@link #OFF}
+	 * @pre level == OFF || out != null
+	 */
+	public GaTrace(int level, Writer out) {
+		if (level < OFF || level > DETAIL || (level > OFF && out == null)) {
+			throw new IllegalArgumentException("GaTrace: invalid level " + level + " or no writer");
+		}
+		this.level = level;
+		if (level == OFF) {
+			queue = null;
+			writer = null;
+			return;
+		}
+		queue = new ArrayBlockingQueue<Object>(CAPACITY);
+		final BufferedWriter buffered = new BufferedWriter(out, 1 << 16);
+		writer = new Thread("GaTrace") {
+
+			@Override
+			public void run() {
+				drain(buffered);
+			}
+		};
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * Checks whether a level is traced.
+	 *
+	 * @param traced the level
+	 * @return true if lines of that level are written
+	 */
+	public boolean isEnabled(int traced) {
+		return traced <= level && traced > OFF;
+	}
+
+	/**
+	 * Gets the highest level traced.
+	 *
+	 * @return the level
+	 */
+	public int getLevel() {
+		return level;
+	}
+
+	/**
+	 * Queues a line, to be called after {@link #isEnabled(int)}.
+	 *
+	 * @param line the line, without the line separator
+	 */
+	public void log(String line) {
+		if (queue == null || closed || failure != null) {
+			return;
+		}
+		try {
+			queue.put(line);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Waits until the lines queued so far are written and flushed.
+	 */
+	public void flush() {
+		if (queue == null || closed) {
+			return;
+		}
+		CountDownLatch done = new CountDownLatch(1);
+		try {
+			queue.put(done);
+			// the writer may have stopped on a close racing with this flush
+			while (!done.await(100, TimeUnit.MILLISECONDS) && writer.isAlive()) {
+				continue;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Writes and flushes the lines queued so far, then stops the writer thread. Lines logged
+	 * afterwards are dropped.
+	 */
+	public synchronized void close() {
+		if (queue == null || closed) {
+			return;
+		}
+		closed = true;
+		try {
+			queue.put(CLOSE);
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Gets the first write failure.
+	 *
+	 * @return the failure, or null if every line was written
+	 */
+	public IOException getFailure() {
+		return failure;
+	}
+
+	/**
+	 * Writes the queued lines until the trace is closed.
+	 *
+	 * @param out the buffered writer
+	 */
+	private void drain(BufferedWriter out) {
+		try {
+			while (true) {
+				Object item = queue.take();
+				if (item instanceof String) {
+					write(out, (String) item);
+				} else if (item instanceof CountDownLatch) {
+					flush(out);
+					((CountDownLatch) item).countDown();
+				} else if (item == CLOSE) {
+					flush(out);
+					// release the flushes that raced with the close
+					for (Object late : queue) {
+						if (late instanceof CountDownLatch) {
+							((CountDownLatch) late).countDown();
+						}
+					}
+					queue.clear();
+					return;
+				}
+				if (queue.isEmpty()) {
+					flush(out);
+				}
+			}
+		} catch (InterruptedException e) {
+			flush(out);
+		}
+	}
+
+	/**
+	 * Writes a line, unless an earlier write failed.
+	 *
+	 * @param out the buffered writer
+	 * @param line the line
+	 */
+	private void write(BufferedWriter out, String line) {
+		if (failure != null) {
+			return;
+		}
+		try {
+			out.write(line);
+			out.newLine();
+		} catch (IOException e) {
+			failure = e;
+		}
+	}
+
+	/**
+	 * Flushes the writer, unless an earlier write failed.
+	 *
+	 * @param out the buffered writer
+	 */
+	private void flush(BufferedWriter out) {
+		if (failure != null) {
+			return;
+		}
+		try {
+			out.flush();
+		} catch (IOException e) {
+			failure = e;
+		}
+	}
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.SplittableRandom;
+
+/**
+ * GaTruncationSelection picks the parents uniformly among the better half of the population, the
+ * rule the broker's GA has always used. The better half is found by partitioning around the
+ * median (quickselect), in expected linear time, instead of sorting.
+ */
+public class GaTruncationSelection extends GaSelection {
+
+	@Override
+	public void select(double[] makespans, SplittableRandom random, int[] selected) {
+		int size = makespans.length;
+		int half = Math.max(1, Math.min(size, size / 2 - 1));
+		int[] order = new int[size];
+		for (int i = 0; i < size; i++) {
+			order[i] = i;
+		}
+		partition(makespans, order, half, random);
+		for (int i = 0; i < selected.length; i++) {
+			selected[i] = order[random.nextInt(half)];
+		}
+	}
+
+	/**
+	 * Moves the k chromosomes with the lowest makespans to the front of the order.
+	 *
+	 * @param makespans the makespans
+	 * @param order the chromosome indexes
+	 * @param k the number of chromosomes to move to the front
+	 * @param random the random generator picking the pivots
+	 */
+	private static void partition(double[] makespans, int[] order, int k, SplittableRandom random) {
+		int low = 0;
+		int high = order.length - 1;
+		while (low < high) {
+			double pivot = makespans[order[low + random.nextInt(high - low + 1)]];
+			int i = low;
+			int j = high;
+			while (i <= j) {
+				while (makespans[order[i]] < pivot) {
+					i++;
+				}
+				while (makespans[order[j]] > pivot) {
+					j--;
+				}
+				if (i <= j) {
+					int temp = order[i];
+					order[i] = order[j];
+					order[j] = temp;
+					i++;
+					j--;
+				}
+			}
+			// order[low..j] <= pivot <= order[i..high]
+			if (k - 1 <= j) {
+				high = j;
+			} else if (k - 1 >= i) {
+				low = i;
+			} else {
+				return;
+			}
+		}
+	}
+
+	@Override
+	public String getName() {
+		return "truncation";
+	}
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.SplittableRandom;
+
+/**
+ * GaUniformCrossover exchanges every gene position between the two parents with probability
+ * 1/2. The coin flips come 64 at a time from one random long. About half the genes move, so the
+ * offspring are evaluated again once they are built.
+ */
+public class GaUniformCrossover extends GaCrossover {
+
+	@Override
+	public void cross(GaPopulation population, GaLoadTracker loads, int first, int second, SplittableRandom random) {
+		int cloudletCount = population.getGeneCount();
+		long mask = 0;
+		for (int n = 0; n < cloudletCount; n++) {
+			if ((n & 63) == 0) {
+				mask = random.nextLong();
+			}
+			if ((mask & 1L << (n & 63)) != 0) {
+				int vm = population.getGene(first, n);
+				population.setGene(first, n, population.getGene(second, n));
+				population.setGene(second, n, vm);
+			}
+		}
+		if (loads != null) {
+			loads.evaluate(population, first);
+			loads.evaluate(population, second);
+		}
+	}
+
+	@Override
+	public String getName() {
+		return "uniform";
+	}
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * GaUniversalSampling picks the parents in proportion to the inverse of their makespan, with
+ * stochastic universal sampling: a single spin places all the pointers, so the number of copies
+ * of each chromosome is within one of its expected value. It costs O(P).
+ */
+public class GaUniversalSampling extends GaSelection {
+
+	@Override
+	public void select(double[] makespans, SplittableRandom random, int[] selected) {
+		double[] weights = new double[makespans.length];
+		for (int m = 0; m < makespans.length; m++) {
+			if (!(makespans[m] > 0.0)) {
+				// an empty schedule, every chromosome is as good as any other
+				Arrays.fill(weights, 1.0);
+				break;
+			}
+			weights[m] = 1.0 / makespans[m];
+		}
+		sample(weights, random, selected);
+	}
+
+	@Override
+	public String getName() {
+		return "sus";
+	}
+
+}
@@ -0,0 +1,165 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Properties;
+
+/**
+ * GaWire holds the binary messages exchanged between {@link GaDistributedIslands} and its
+ * {@link GaWorker} processes. Every message starts with a one byte tag:
+ * <ul>
+ * <li>{@link #PROBLEM}: coordinator to worker, the migration interval, the random seed, the
+ * milliseconds left before the deadline, the cloudlet lengths, the vm mips, the GA configuration as properties and the seed chromosomes;
+ * <li>{@link #MIGRANT}: both ways, the best chromosome of an island and its makespan;
+ * <li>{@link #RESULT}: worker to coordinator, the number of generations, then the final best
+ * chromosome and its makespan.
+ * </ul>
+ * Genes are written with 1, 2 or 4 bytes each depending on the number of vms.
+ */
+final class GaWire {
+
+	/** The tag of a problem message. */
+	static final byte PROBLEM = 1;
+
+	/** The tag of a migrant message. */
+	static final byte MIGRANT = 2;
+
+	/** The tag of a result message. */
+	static final byte RESULT = 3;
+
+	/**
+	 * The class cannot be instantiated.
+	 */
+	private GaWire() {
+	}
+
+	/**
+	 * Writes a problem message.
+	 *
+	 * @param out the stream
+	 * @param lengths the length of each cloudlet
+	 * @param mips the mips of each vm
+	 * @param config the parameters of the algorithm
+	 * @param migrationInterval the number of generations between two migrations
+	 * @param seed the seed of the island's random generator
+	 * @param timeLeft the milliseconds left before the deadline, 0 for none
+	 * @param seeds the seed chromosomes
+	 * @throws IOException if the stream fails
+	 */
+	static void writeProblem(DataOutputStream out, double[] lengths, double[] mips, GaConfig config,
+			int migrationInterval, long seed, long timeLeft, int[][] seeds) throws IOException {
+		out.writeByte(PROBLEM);
+		out.writeInt(lengths.length);
+		out.writeInt(mips.length);
+		out.writeInt(migrationInterval);
+		out.writeLong(seed);
+		out.writeLong(timeLeft);
+		for (double length : lengths) {
+			out.writeDouble(length);
+		}
+		for (double m : mips) {
+			out.writeDouble(m);
+		}
+		Properties properties = config.toProperties();
+		out.writeInt(properties.size());
+		for (String name : properties.stringPropertyNames()) {
+			out.writeUTF(name);
+			out.writeUTF(properties.getProperty(name));
+		}
+		out.writeInt(seeds.length);
+		for (int[] chromosome : seeds) {
+			writeGenes(out, chromosome, mips.length);
+		}
+		out.flush();
+	}
+
+	/**
+	 * Reads the configuration of a problem message, which follows the vm mips.
+	 *
+	 * @param in the stream
+	 * @return the configuration
+	 * @throws IOException if the stream fails
+	 */
+	static GaConfig readConfig(DataInputStream in) throws IOException {
+		Properties properties = new Properties();
+		int count = in.readInt();
+		for (int i = 0; i < count; i++) {
+			String name = in.readUTF();
+			properties.setProperty(name, in.readUTF());
+		}
+		return GaConfig.fromProperties(properties);
+	}
+
+	/**
+	 * Writes a migrant or result chromosome with its makespan, without the tag.
+	 *
+	 * @param out the stream
+	 * @param genes the chromosome
+	 * @param makespan the makespan
+	 * @param vmCount the number of vms
+	 * @throws IOException if the stream fails
+	 */
+	static void writeChromosome(DataOutputStream out, int[] genes, double makespan, int vmCount)
+			throws IOException {
+		out.writeDouble(makespan);
+		writeGenes(out, genes, vmCount);
+	}
+
+	/**
+	 * Writes the genes of a chromosome with the narrowest width that holds a vm index.
+	 *
+	 * @param out the stream
+	 * @param genes the chromosome
+	 * @param vmCount the number of vms
+	 * @throws IOException if the stream fails
+	 */
+	static void writeGenes(DataOutputStream out, int[] genes, int vmCount) throws IOException {
+		if (vmCount <= 1 << 8) {
+			for (int gene : genes) {
+				out.writeByte(gene);
+			}
+		} else if (vmCount <= 1 << 16) {
+			for (int gene : genes) {
+				out.writeShort(gene);
+			}
+		} else {
+			for (int gene : genes) {
+				out.writeInt(gene);
+			}
+		}
+	}
+
+	/**
+	 * Reads the genes written by {@link #writeGenes(DataOutputStream, int[], int)}.
+	 *
+	 * @param in the stream
+	 * @param genes the array receiving the chromosome
+	 * @param vmCount the number of vms
+	 * @throws IOException if the stream fails
+	 */
+	static void readGenes(DataInputStream in, int[] genes, int vmCount) throws IOException {
+		if (vmCount <= 1 << 8) {
+			for (int n = 0; n < genes.length; n++) {
+				genes[n] = in.readUnsignedByte();
+			}
+		} else if (vmCount <= 1 << 16) {
+			for (int n = 0; n < genes.length; n++) {
+				genes[n] = in.readUnsignedShort();
+			}
+		} else {
+			for (int n = 0; n < genes.length; n++) {
+				genes[n] = in.readInt();
+			}
+		}
+	}
+
+}
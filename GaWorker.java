@@ -0,0 +1,135 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * GaWorker is the process running one island of {@link GaDistributedIslands}. It connects to the
+ * coordinator on the loopback interface, reads the problem, evolves a {@link GaEngine} and sends
+ * its best chromosome every migration interval. Migrants forwarded by the coordinator are read
+ * on a separate thread and taken in between generations. If the coordinator sets a deadline, the
+ * island stops at its first generation boundary past it.
+ * <p>
+ * Usage: <code>java org.cloudbus.cloudsim.GaWorker port</code>
+ */
+public class GaWorker {
+
+	/**
+	 * Runs a worker.
+	 *
+	 * @param args the coordinator port
+	 * @throws IOException if the connection fails
+	 */
+	public static void main(String[] args) throws IOException {
+		Socket socket = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(args[0]));
+		try {
+			socket.setTcpNoDelay(true);
+			DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			run(in, out);
+			socket.shutdownOutput();
+		} finally {
+			socket.close();
+		}
+	}
+
+	/**
+	 * Reads the problem, evolves the island and sends the result.
+	 *
+	 * @param in the stream from the coordinator
+	 * @param out the stream to the coordinator
+	 * @throws IOException if the connection fails
+	 */
+	private static void run(final DataInputStream in, DataOutputStream out) throws IOException {
+		if (in.readByte() != GaWire.PROBLEM) {
+			throw new IOException("GaWorker: expected a problem message");
+		}
+		final int cloudletCount = in.readInt();
+		final int vmCount = in.readInt();
+		int migrationInterval = in.readInt();
+		long seed = in.readLong();
+		GaDeadline deadline = GaDeadline.after(in.readLong());
+		double[] lengths = new double[cloudletCount];
+		for (int i = 0; i < cloudletCount; i++) {
+			lengths[i] = in.readDouble();
+		}
+		double[] mips = new double[vmCount];
+		for (int j = 0; j < vmCount; j++) {
+			mips[j] = in.readDouble();
+		}
+		GaConfig config = GaWire.readConfig(in);
+		int[][] seeds = new int[in.readInt()][cloudletCount];
+		for (int[] chromosome : seeds) {
+			GaWire.readGenes(in, chromosome, vmCount);
+		}
+
+		GaEngine engine = new GaEngine(new GaFitness(GaEtc.create(lengths, mips)), config, cloudletCount, vmCount,
+				new SplittableRandom(seed));
+		engine.setDeadline(deadline);
+
+		// the migrants are read on their own thread, only the latest one is kept
+		final AtomicReference<GaIslands.Migrant> inbox = new AtomicReference<GaIslands.Migrant>();
+		Thread reader = new Thread("GaWorker-reader") {
+
+			@Override
+			public void run() {
+				try {
+					while (in.readByte() == GaWire.MIGRANT) {
+						double makespan = in.readDouble();
+						int[] genes = new int[cloudletCount];
+						GaWire.readGenes(in, genes, vmCount);
+						inbox.set(new GaIslands.Migrant(genes, makespan));
+					}
+				} catch (EOFException e) {
+					// the coordinator closed the connection
+				} catch (IOException e) {
+					// the connection is gone, the island just stops receiving migrants
+				}
+			}
+		};
+		reader.setDaemon(true);
+		reader.start();
+
+		engine.initialize(seeds, false);
+		while (!engine.isConverged() && !deadline.isExpired()) {
+			engine.generation();
+			if (engine.getGenerations() % migrationInterval == 0) {
+				out.writeByte(GaWire.MIGRANT);
+				GaWire.writeChromosome(out, engine.getBest(), engine.getBestMakespan(), vmCount);
+				out.flush();
+				GaIslands.Migrant migrant = inbox.getAndSet(null);
+				if (migrant != null) {
+					engine.immigrate(migrant.genes, migrant.makespan);
+				}
+			}
+		}
+		out.writeByte(GaWire.RESULT);
+		out.writeInt(engine.getGenerations());
+		GaWire.writeChromosome(out, engine.getBest(), engine.getBestMakespan(), vmCount);
+		out.flush();
+
+		// wait for the coordinator to close the connection, so no forwarded migrant hits a reset
+		try {
+			reader.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}